@@ -0,0 +1,49 @@
+package org.goit.urlshortener.auth.service;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.goit.urlshortener.auth.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET_KEY = "benchmark-secret-key-benchmark-secret-key-benchmark-secret-key";
+    private static final long EXPIRATION_MS = 3_600_000L;
+
+    private JwtService jwtService;
+    // Cache of size 0, so every parse verifies the signature as on a token's first request
+    private JwtService uncachedJwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new SimpleMeterRegistry(), SECRET_KEY, EXPIRATION_MS, 10_000);
+        uncachedJwtService = new JwtService(new SimpleMeterRegistry(), SECRET_KEY, EXPIRATION_MS, 0);
+        user = User.builder()
+                .id(1L)
+                .email("benchmark@mail.com")
+                .build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims parseClaimsCached() {
+        return jwtService.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims parseClaimsUncached() {
+        return uncachedJwtService.parseClaims(token);
+    }
+}
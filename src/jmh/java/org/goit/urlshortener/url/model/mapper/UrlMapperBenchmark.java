@@ -0,0 +1,35 @@
+package org.goit.urlshortener.url.model.mapper;
+
+import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.dto.UrlResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UrlMapperBenchmark {
+
+    private final UrlMapper urlMapper = new UrlMapperImpl();
+    private Url url;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        url = Url.builder()
+                .id(1L)
+                .originalUrl("https://example.com/some/path")
+                .shortCode("abc123")
+                .createdAt(now)
+                .expiresAt(now.plusDays(1))
+                .clickCount(42L)
+                .build();
+    }
+
+    @Benchmark
+    public UrlResponse toUrlResponse() {
+        return urlMapper.toUrlResponse(url);
+    }
+}
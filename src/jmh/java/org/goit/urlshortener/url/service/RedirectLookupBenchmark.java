@@ -0,0 +1,71 @@
+package org.goit.urlshortener.url.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.goit.urlshortener.common.cache.LocalCacheInvalidationBus;
+import org.goit.urlshortener.common.cache.TwoLevelCacheManager;
+import org.goit.urlshortener.url.model.RedirectTarget;
+import org.goit.urlshortener.url.repository.ClickRollupRepository;
+import org.goit.urlshortener.url.repository.UrlRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Redirect resolution when the target is already cached, the path almost every redirect takes.
+ * The repository and the other collaborators are mocks that a cache hit never reaches, which is checked
+ * after every trial.
+ * <p>
+ * The service is built without its Spring proxy, so transaction handling is not measured here;
+ * {@code RedirectCacheHitTest} checks that a hit through the proxy takes no pooled connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RedirectLookupBenchmark {
+
+    private static final int CACHED_CODES = 10_000;
+
+    private final UrlRepository urlRepository = mock(UrlRepository.class);
+    private final UrlValidationService urlValidator = mock(UrlValidationService.class);
+    private final ShortCodeGenerator shortCodeGenerator = mock(ShortCodeGenerator.class);
+    private final ShortCodePool shortCodePool = mock(ShortCodePool.class);
+    private final ClickCounter clickCounter = mock(ClickCounter.class);
+    private final ClickRollupBuffer clickRollupBuffer = mock(ClickRollupBuffer.class);
+    private final ClickRollupRepository clickRollupRepository = mock(ClickRollupRepository.class);
+
+    private UrlService urlService;
+    private String[] shortCodes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        RedirectCache redirectCache = new RedirectCache(new TwoLevelCacheManager(new CaffeineCacheManager(),
+                null, new LocalCacheInvalidationBus(), "benchmark"));
+        urlService = new UrlService(urlRepository, urlValidator, shortCodeGenerator, shortCodePool, clickCounter,
+                clickRollupBuffer, clickRollupRepository, redirectCache, new UrlMetrics(new SimpleMeterRegistry()));
+
+        shortCodes = new String[CACHED_CODES];
+        LocalDateTime expiresAt = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < CACHED_CODES; i++) {
+            shortCodes[i] = ShortCodeEncoder.encode(i);
+            redirectCache.put(shortCodes[i], new RedirectTarget((long) i, "https://example.com/" + i, expiresAt));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        verifyNoInteractions(urlRepository, urlValidator, shortCodeGenerator, shortCodePool, clickCounter,
+                clickRollupBuffer, clickRollupRepository);
+    }
+
+    @Benchmark
+    public RedirectTarget cachedRedirectTarget() {
+        next = (next + 1) % CACHED_CODES;
+        return urlService.getRedirectTarget(shortCodes[next]);
+    }
+}
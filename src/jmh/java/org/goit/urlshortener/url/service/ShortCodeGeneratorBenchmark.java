@@ -0,0 +1,36 @@
+package org.goit.urlshortener.url.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ShortCodeGeneratorBenchmark {
+
+    private ShortCodeGenerator generator;
+    private Set<String> existingCodes;
+
+    @Setup
+    public void setUp() {
+        generator = new ShortCodeGenerator(new SimpleMeterRegistry(), 6, 10, 0.1);
+        existingCodes = new HashSet<>();
+        while (existingCodes.size() < 100_000) {
+            existingCodes.add(generator.generateUniqueShortCode(code -> false));
+        }
+    }
+
+    @Benchmark
+    public String generateWithoutCollisions() {
+        return generator.generateUniqueShortCode(code -> false);
+    }
+
+    @Benchmark
+    public String generateAgainstExistingCodes() {
+        return generator.generateUniqueShortCode(existingCodes::contains);
+    }
+}
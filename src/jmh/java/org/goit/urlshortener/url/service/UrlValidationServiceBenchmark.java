@@ -0,0 +1,24 @@
+package org.goit.urlshortener.url.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UrlValidationServiceBenchmark {
+
+    @Param({
+            "https://example.com",
+            "https://www.example.com/some/long/path/to/a/page?query=value&other=1#fragment"
+    })
+    private String url;
+
+    private final UrlValidationService validationService = new UrlValidationService();
+
+    @Benchmark
+    public void validateUrl() {
+        validationService.validateUrl(url);
+    }
+}
@@ -0,0 +1,230 @@
+package org.goit.urlshortener.loadtest;
+
+import org.goit.urlshortener.TestcontainersConfiguration;
+import org.goit.urlshortener.auth.model.User;
+import org.goit.urlshortener.auth.repository.UserRepository;
+import org.goit.urlshortener.auth.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test against a real Postgres, run with {@code ./gradlew loadTest}.
+ * <p>
+ * Seeds {@code loadtest.urls} URLs, then a fixed number of clients send requests back to back:
+ * redirects to a Zipf-distributed hot set, creates and first-page listings. Each endpoint gets its
+ * own latency histogram, written to {@code build/reports/loadtest/<endpoint>.hgrm}.
+ * <p>
+ * Clients wait for each response before sending the next request (closed loop), so latencies are
+ * measured under the offered concurrency, not under a fixed arrival rate. The run fails when an
+ * endpoint exceeds its p99 or error-rate limit, which makes it the gate for redirect path changes.
+ * All settings are {@code loadtest.*} system properties, for example
+ * {@code ./gradlew loadTest -Dloadtest.urls=5000000 -Dloadtest.concurrency=512}. Adding
+ * {@code -Dloadtest.profiles=virtual} runs the application on virtual threads, so both modes are measured
+ * with the same parameters.
+ */
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MixedWorkloadLoadTest {
+
+    private static final int URLS = Integer.getInteger("loadtest.urls", 1_000_000);
+    private static final int USERS = Integer.getInteger("loadtest.users", 100);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 256);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 30);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 60);
+    private static final double ZIPF_EXPONENT = doubleProperty("loadtest.zipf-exponent", 1.0);
+    private static final double CREATE_RATIO = doubleProperty("loadtest.create-ratio", 0.05);
+    private static final double LIST_RATIO = doubleProperty("loadtest.list-ratio", 0.02);
+    private static final double MAX_REDIRECT_P99_MS = doubleProperty("loadtest.max-redirect-p99-ms", 50);
+    private static final double MAX_CREATE_P99_MS = doubleProperty("loadtest.max-create-p99-ms", 200);
+    private static final double MAX_LIST_P99_MS = doubleProperty("loadtest.max-list-p99-ms", 200);
+    private static final double MAX_ERROR_RATE = doubleProperty("loadtest.max-error-rate", 0.001);
+
+    private static final int SEED_CHUNK = 500_000;
+    private static final Path REPORT_DIRECTORY = Path.of("build", "reports", "loadtest");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private Environment environment;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final EndpointStats redirects = new EndpointStats("redirect");
+    private final EndpointStats creates = new EndpointStats("create");
+    private final EndpointStats listings = new EndpointStats("list");
+    private final AtomicLong createdUrls = new AtomicLong();
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        long start = System.nanoTime();
+        List<Long> userIds = seedUsers();
+        seedUrls(userIds);
+        System.out.printf("Seeded %d users and %d URLs in %d s%n",
+                USERS, URLS, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+
+        User user = userRepository.findById(userIds.get(0)).orElseThrow();
+        token = jwtService.generateToken(user);
+    }
+
+    @Test
+    @DisplayName("Mixed redirect, create and list workload")
+    void runMixedWorkload() throws Exception {
+        ZipfDistribution hotSet = new ZipfDistribution(URLS, ZIPF_EXPONENT);
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                long seed = i;
+                clients.submit(() -> runClient(new SplittableRandom(seed), hotSet, end));
+            }
+
+            Thread.sleep(Math.max(0, TimeUnit.NANOSECONDS.toMillis(warmupEnd - System.nanoTime())));
+            redirects.reset();
+            creates.reset();
+            listings.reset();
+        }
+        long elapsed = System.nanoTime() - warmupEnd;
+
+        System.out.printf("%s threads, %d clients, %d s measured after %d s warmup, Zipf exponent %.2f over %d URLs%n",
+                environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false) ? "Virtual" : "Platform",
+                CONCURRENCY, DURATION_SECONDS, WARMUP_SECONDS, ZIPF_EXPONENT, URLS);
+        for (EndpointStats stats : List.of(redirects, creates, listings)) {
+            stats.finish();
+            stats.printSummary(System.out, elapsed);
+            stats.writeDistribution(REPORT_DIRECTORY);
+        }
+
+        assertWithinLimits(redirects, MAX_REDIRECT_P99_MS);
+        assertWithinLimits(creates, MAX_CREATE_P99_MS);
+        assertWithinLimits(listings, MAX_LIST_P99_MS);
+    }
+
+    private void runClient(SplittableRandom random, ZipfDistribution hotSet, long end) {
+        while (System.nanoTime() < end) {
+            double operation = random.nextDouble();
+            if (operation < CREATE_RATIO) {
+                send(creates, HttpRequest.newBuilder(uri("/api/v1/urls"))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"originalUrl\":\"https://example.com/created/" + createdUrls.incrementAndGet() + "\"}"))
+                        .build(), 201);
+            } else if (operation < CREATE_RATIO + LIST_RATIO) {
+                send(listings, HttpRequest.newBuilder(uri("/api/v1/urls?after=&size=20"))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build(), 200);
+            } else {
+                send(redirects, HttpRequest.newBuilder(uri("/s/" + shortCode(hotSet.sample(random))))
+                        .GET()
+                        .build(), 301);
+            }
+        }
+    }
+
+    private void send(EndpointStats stats, HttpRequest request, int expectedStatus) {
+        long start = System.nanoTime();
+        boolean success;
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            success = response.statusCode() == expectedStatus;
+        } catch (Exception e) {
+            success = false;
+        }
+        stats.record(System.nanoTime() - start, success);
+    }
+
+    private List<Long> seedUsers() {
+        return jdbcTemplate.queryForList("""
+                INSERT INTO users (id, email, password, created_at)
+                SELECT nextval('seq_users_id'), 'loadtest-' || ? || '-' || i || '@mail.com', 'Password1', now()
+                FROM generate_series(1, ?) i
+                RETURNING id""", Long.class, System.nanoTime(), USERS);
+    }
+
+    private void seedUrls(List<Long> userIds) {
+        Long[] owners = userIds.toArray(Long[]::new);
+        jdbcTemplate.update("DELETE FROM urls WHERE short_code LIKE '-%'");
+        for (int chunk = 0; chunk < URLS; chunk += SEED_CHUNK) {
+            int from = chunk;
+            int to = Math.min(chunk + SEED_CHUNK, URLS) - 1;
+            jdbcTemplate.update(connection -> {
+                var statement = connection.prepareStatement("""
+                        INSERT INTO urls (id, short_code, original_url, created_at, expires_at, click_count, user_id)
+                        SELECT nextval('seq_urls_id'), '-' || to_hex(i), 'https://example.com/seeded/' || i,
+                               now(), now() + interval '30 days', 0, (?::bigint[])[1 + i % ?]
+                        FROM generate_series(?, ?) i""");
+                statement.setArray(1, connection.createArrayOf("bigint", owners));
+                statement.setInt(2, owners.length);
+                statement.setInt(3, from);
+                statement.setInt(4, to);
+                return statement;
+            });
+        }
+        jdbcTemplate.execute("ANALYZE urls");
+    }
+
+    /**
+     * Seeded codes start with {@code -}, which neither the sequence nor the random generator produces.
+     */
+    private static String shortCode(int rank) {
+        return "-" + Integer.toHexString(rank);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static void assertWithinLimits(EndpointStats stats, double maxP99Millis) {
+        long requests = stats.getRequests();
+        assertTrue(requests > 0, "No " + stats.getName() + " requests were measured");
+        assertTrue(stats.getErrors() <= requests * MAX_ERROR_RATE,
+                stats.getName() + ": " + stats.getErrors() + " errors in " + requests + " requests");
+        assertTrue(stats.percentileMillis(99) <= maxP99Millis,
+                stats.getName() + ": p99 " + stats.percentileMillis(99) + " ms exceeds " + maxP99Millis + " ms");
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+}
@@ -36,7 +36,7 @@ import java.util.List;
 @NoArgsConstructor
 public class User implements UserDetails {
     @Id
-    @SequenceGenerator(allocationSize = 1, name = "users_seq", sequenceName = "seq_users_id")
+    @SequenceGenerator(allocationSize = 50, name = "users_seq", sequenceName = "seq_users_id")
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
     @Setter(AccessLevel.PRIVATE)
     @Column(updatable = false, nullable = false)
@@ -1,5 +1,6 @@
 package org.goit.urlshortener.auth.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,6 +11,7 @@ import org.goit.urlshortener.auth.service.JwtService;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -32,18 +34,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
 
-        String jwt = null;
+        Claims claims = null;
         String userEmail = null;
 
         if(authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(BEGIN_INDEX);
-           userEmail = jwtService.extractUserName(jwt);
+            // Parsed and verified once, later requests with the same token hit the claims cache
+            claims = jwtService.parseClaims(authHeader.substring(BEGIN_INDEX));
+            userEmail = claims.getSubject();
         }
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            // Tokens carrying the user id need no lookup, older ones fall back to the cached user details
+            UserDetails userDetails = jwtService.extractPrincipal(claims)
+                    .map(UserDetails.class::cast)
+                    .orElseGet(() -> this.userDetailsService.loadUserByUsername(userEmail));
             
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (jwtService.isTokenValid(claims, userDetails)) {
 
                 var authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
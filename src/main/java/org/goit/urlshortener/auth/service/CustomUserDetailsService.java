@@ -1,21 +1,40 @@
 package org.goit.urlshortener.auth.service;
 
 import lombok.AllArgsConstructor;
+import org.goit.urlshortener.auth.model.User;
 import org.goit.urlshortener.auth.repository.UserRepository;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import static org.goit.urlshortener.common.config.CacheConfig.USER_DETAILS;
+
 @Service
 @AllArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    /**
+     * Cached per email, entries are evicted by {@link UserService} whenever the user changes.
+     * A detached copy without the {@code urls} collection is cached, so nothing lazy is kept around.
+     */
     @Override
+    @Cacheable(cacheNames = USER_DETAILS, key = "#username")
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return userRepository.findByEmail(username)
+                .map(CustomUserDetailsService::toPrincipal)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
+
+    private static User toPrincipal(User user) {
+        return User.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
 }
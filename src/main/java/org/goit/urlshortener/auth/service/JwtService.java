@@ -1,69 +1,189 @@
 package org.goit.urlshortener.auth.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.goit.urlshortener.auth.model.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    @Value("${token.jwt.secret-key}")
-    private String jwtSecretKey;
+    /**
+     * Id of the user the token was issued to, so requests can build their principal without a lookup.
+     */
+    public static final String USER_ID_CLAIM = "uid";
 
-    @Value("${token.jwt.expiration}")
-    private Long jwtExpirationMs;
+    static final String CLAIMS_CACHE_NAME = "jwtClaims";
+
+    private final Long jwtExpirationMs;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    /**
+     * Claims of tokens that already passed signature verification, keyed by the SHA-256 of the token
+     * so raw tokens are not kept in memory. Entries expire together with their token.
+     */
+    private final Cache<String, Claims> verifiedClaims;
+
+    // Signature verifications only; tokens served from the claims cache show up as cache hits
+    private final Timer validParseTimer;
+    private final Timer invalidParseTimer;
+
+    public JwtService(MeterRegistry meterRegistry,
+                      @Value("${token.jwt.secret-key}") String jwtSecretKey,
+                      @Value("${token.jwt.expiration}") Long jwtExpirationMs,
+                      @Value("${token.jwt.claims-cache.maximum-size:10000}") long claimsCacheSize) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecretKey.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, CLAIMS_CACHE_NAME);
+        this.validParseTimer = parseTimer(meterRegistry, "valid");
+        this.invalidParseTimer = parseTimer(meterRegistry, "invalid");
+    }
 
     public String generateToken(UserDetails userDetails) {
         var now = new Date();
         var expiryDate = new Date(now.getTime() + jwtExpirationMs);
-        return Jwts.builder()
+        var builder = Jwts.builder()
                 .subject(userDetails.getUsername())
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .expiration(expiryDate);
+        if (userDetails instanceof User user && user.getId() != null) {
+            builder.claim(USER_ID_CLAIM, user.getId());
+        }
+        return builder
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verifies the token and returns its claims. A token is parsed and verified only on its first use;
+     * invalid or expired tokens throw the usual {@link io.jsonwebtoken.JwtException} and are never cached.
+     */
+    public Claims parseClaims(String token) {
+        return verifiedClaims.get(hash(token), key -> verify(token));
+    }
+
+    /**
+     * Builds the request principal from the token alone. Empty for tokens issued without a user id,
+     * which have to be resolved through {@link CustomUserDetailsService}.
+     */
+    public Optional<User> extractPrincipal(Claims claims) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        if (userId == null || claims.getSubject() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(User.builder()
+                .id(userId)
+                .email(claims.getSubject())
+                .build());
+    }
+
     public String extractUserName(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
-        return (userName.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(parseClaims(token), userDetails);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isExpired(claims);
+    }
+
+    Cache<String, Claims> getVerifiedClaims() {
+        return verifiedClaims;
     }
 
     private <T> T extractClaim(String token, Function<Claims, T> claimsResolvers) {
-        final var claims = extractAllClaims(token);
+        final var claims = parseClaims(token);
         return claimsResolvers.apply(claims);
     }
 
     boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return isExpired(parseClaims(token));
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
     }
 
-    private Claims extractAllClaims(String token) {
+    private Claims verify(String token) {
+        long start = System.nanoTime();
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            validParseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidParseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
 
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+    private static Timer parseTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.parse")
+                .description("JWT parsing and signature verification")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecretKey.getBytes(StandardCharsets.UTF_8));
+    private class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            // Tokens without exp are not issued here; keep them no longer than a token of ours would live
+            long remainingMs = expiration != null
+                    ? expiration.getTime() - System.currentTimeMillis()
+                    : jwtExpirationMs;
+            return Math.max(0, remainingMs) * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
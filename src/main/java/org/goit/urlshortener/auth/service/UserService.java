@@ -9,12 +9,15 @@ import org.goit.urlshortener.auth.model.mapper.SignupMapper;
 import org.goit.urlshortener.auth.model.dto.SignupRequest;
 import org.goit.urlshortener.auth.model.dto.SignupResponse;
 import org.goit.urlshortener.auth.repository.UserRepository;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
+import static org.goit.urlshortener.common.config.CacheConfig.USER_DETAILS;
+
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +27,7 @@ public class UserService {
     private final SignupMapper signupMapper;
 
     @Transactional
+    @CacheEvict(cacheNames = USER_DETAILS, key = "#request.email()")
     public SignupResponse createUser(SignupRequest request) {
         if (userRepository.existsByEmail(request.email())) {
             throw new UserAlreadyExistsException(ExceptionMessages.USER_ALREADY_EXISTS.getMessage());
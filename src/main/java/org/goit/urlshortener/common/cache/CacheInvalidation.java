@@ -0,0 +1,15 @@
+package org.goit.urlshortener.common.cache;
+
+/**
+ * Invalidation message exchanged between nodes.
+ * A {@code null} key invalidates the whole cache, a {@code null} cache name invalidates every cache.
+ * A {@code null} origin marks a local resync that every subscriber on this node must apply.
+ */
+public record CacheInvalidation(String originNodeId,
+                                String cacheName,
+                                String key) {
+
+    public static CacheInvalidation everything() {
+        return new CacheInvalidation(null, null, null);
+    }
+}
@@ -0,0 +1,13 @@
+package org.goit.urlshortener.common.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts cache invalidations to every application node, including the publishing one.
+ */
+public interface CacheInvalidationBus {
+
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
@@ -0,0 +1,313 @@
+package org.goit.urlshortener.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Cross-node bus on top of Postgres {@code LISTEN/NOTIFY}, so no extra infrastructure is needed.
+ * <p>
+ * Invalidations published inside a transaction are collected, without duplicates, and handed over once it
+ * commits; a rollback discards them. Other invalidations are handed over right away. A publisher thread
+ * drains them from a bounded queue and sends as many as fit into one {@code NOTIFY} payload, on a dedicated
+ * auto-commit connection, so publishing never takes a connection from the pool on the caller's thread. If
+ * the queue overflows, every cache is invalidated instead.
+ * <p>
+ * One pooled connection is held by each of the publisher and listener threads; after the listener
+ * reconnects every cache is invalidated, since messages may have been missed.
+ */
+@Slf4j
+public class PostgresCacheInvalidationBus implements CacheInvalidationBus, AutoCloseable {
+
+    static final String CHANNEL = "cache_invalidation";
+    private static final String SEPARATOR = "|";
+    private static final char LINE_SEPARATOR = '\n';
+    // Postgres rejects NOTIFY payloads of 8000 bytes or more
+    static final int MAX_PAYLOAD_BYTES = 7_900;
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int POLL_TIMEOUT_MS = 1_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private final DataSource dataSource;
+    private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<CacheInvalidation> outbox = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+    private Thread publisherThread;
+
+    public PostgresCacheInvalidationBus(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        publisherThread = new Thread(this::publishQueued, "cache-invalidation-publisher");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        if (publisherThread != null) {
+            publisherThread.interrupt();
+        }
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingInTransaction().add(invalidation);
+        } else {
+            enqueue(invalidation);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Invalidations of the current transaction. They are bound as a transaction resource until completion,
+     * so publications from after-commit callbacks of the same transaction join them.
+     */
+    @SuppressWarnings("unchecked")
+    private Set<CacheInvalidation> pendingInTransaction() {
+        Set<CacheInvalidation> pending = (Set<CacheInvalidation>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        Set<CacheInvalidation> created = new LinkedHashSet<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PostgresCacheInvalidationBus.this);
+                if (status == STATUS_COMMITTED) {
+                    created.forEach(PostgresCacheInvalidationBus.this::enqueue);
+                }
+            }
+        });
+        return created;
+    }
+
+    private void enqueue(CacheInvalidation invalidation) {
+        if (!outbox.offer(invalidation) && overflowed.compareAndSet(false, true)) {
+            log.warn("Cache invalidation queue is full, every cache will be invalidated");
+        }
+    }
+
+    private void publishQueued() {
+        List<CacheInvalidation> batch = new ArrayList<>();
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                // Before the first statement, so a read-only routing proxy picks the primary
+                connection.setReadOnly(false);
+                connection.setAutoCommit(true);
+                try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                    statement.setString(1, CHANNEL);
+                    while (running) {
+                        // A batch left over from a failed connection is sent again first
+                        if (batch.isEmpty() && !takeBatch(batch)) {
+                            continue;
+                        }
+                        for (String payload : encodeAll(batch)) {
+                            statement.setString(2, payload);
+                            statement.execute();
+                        }
+                        batch.clear();
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation publisher lost its connection, reconnecting in {} ms",
+                            RECONNECT_DELAY_MS, e);
+                    sleepBeforeReconnect();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Waits for queued invalidations and moves all of them to {@code batch}.
+     *
+     * @return false if none arrived within the poll timeout
+     */
+    private boolean takeBatch(List<CacheInvalidation> batch) throws InterruptedException {
+        CacheInvalidation first = outbox.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return false;
+        }
+        batch.add(first);
+        outbox.drainTo(batch);
+        if (overflowed.getAndSet(false)) {
+            batch.clear();
+            batch.add(CacheInvalidation.everything());
+        }
+        return true;
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnecting) {
+                    deliver(CacheInvalidation.everything());
+                }
+                reconnecting = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            decodeAll(notification.getParameter()).forEach(this::deliver);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener lost its connection, reconnecting in {} ms", RECONNECT_DELAY_MS, e);
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void deliver(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> listener : listeners) {
+            try {
+                listener.accept(invalidation);
+            } catch (RuntimeException e) {
+                log.error("Cache invalidation listener failed for {}", invalidation, e);
+            }
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Packs the invalidations, one per line, into as few payloads below {@link #MAX_PAYLOAD_BYTES} as possible.
+     * A single invalidation too large for a payload is widened to its whole cache.
+     */
+    static List<String> encodeAll(Collection<CacheInvalidation> invalidations) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder();
+        int payloadBytes = 0;
+        for (CacheInvalidation invalidation : new LinkedHashSet<>(invalidations)) {
+            String line = encode(invalidation);
+            int lineBytes = line.getBytes(StandardCharsets.UTF_8).length;
+            if (lineBytes >= MAX_PAYLOAD_BYTES) {
+                line = encode(new CacheInvalidation(invalidation.originNodeId(), invalidation.cacheName(), null));
+                lineBytes = line.getBytes(StandardCharsets.UTF_8).length;
+            }
+            if (payloadBytes > 0 && payloadBytes + 1 + lineBytes >= MAX_PAYLOAD_BYTES) {
+                payloads.add(payload.toString());
+                payload.setLength(0);
+                payloadBytes = 0;
+            }
+            if (payloadBytes > 0) {
+                payload.append(LINE_SEPARATOR);
+                payloadBytes++;
+            }
+            payload.append(line);
+            payloadBytes += lineBytes;
+        }
+        if (payloadBytes > 0) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    static List<CacheInvalidation> decodeAll(String payload) {
+        List<CacheInvalidation> invalidations = new ArrayList<>();
+        int start = 0;
+        while (start <= payload.length()) {
+            int end = payload.indexOf(LINE_SEPARATOR, start);
+            if (end < 0) {
+                end = payload.length();
+            }
+            invalidations.add(decode(payload.substring(start, end)));
+            start = end + 1;
+        }
+        return invalidations;
+    }
+
+    static String encode(CacheInvalidation invalidation) {
+        return String.join(SEPARATOR,
+                invalidation.originNodeId(),
+                invalidation.cacheName() == null ? "" : invalidation.cacheName(),
+                invalidation.key() == null ? "" : escape(invalidation.key()));
+    }
+
+    static CacheInvalidation decode(String payload) {
+        // The key goes last, so it may contain the separator itself
+        String[] parts = payload.split("\\|", 3);
+        String cacheName = parts.length > 1 && !parts[1].isEmpty() ? parts[1] : null;
+        String key = parts.length > 2 && !parts[2].isEmpty() ? unescape(parts[2]) : null;
+        return new CacheInvalidation(parts[0], cacheName, key);
+    }
+
+    // Lines separate invalidations within a payload, so line breaks in keys are escaped
+    private static String escape(String key) {
+        return key.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String unescape(String key) {
+        if (key.indexOf('\\') < 0) {
+            return key;
+        }
+        StringBuilder unescaped = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '\\' && i + 1 < key.length()) {
+                c = key.charAt(++i) == 'n' ? '\n' : key.charAt(i);
+            }
+            unescaped.append(c);
+        }
+        return unescaped.toString();
+    }
+}
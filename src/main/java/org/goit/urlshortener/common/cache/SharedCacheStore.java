@@ -0,0 +1,16 @@
+package org.goit.urlshortener.common.cache;
+
+/**
+ * Second-level cache shared by all application nodes, e.g. Redis or Memcached.
+ * Values have to be {@link java.io.Serializable} to be stored out of process.
+ */
+public interface SharedCacheStore {
+
+    Object get(String cacheName, Object key);
+
+    void put(String cacheName, Object key, Object value);
+
+    void evict(String cacheName, Object key);
+
+    void clear(String cacheName);
+}
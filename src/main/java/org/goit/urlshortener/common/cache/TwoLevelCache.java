@@ -0,0 +1,114 @@
+package org.goit.urlshortener.common.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Caffeine L1 in front of an optional {@link SharedCacheStore} L2.
+ * Evictions go to both levels and are broadcast, so other nodes drop their L1 entry as well.
+ * Keys are expected to be strings, since they travel over the invalidation bus as text.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache;
+    private final SharedCacheStore sharedStore;
+    private final CacheInvalidationBus invalidationBus;
+    private final String nodeId;
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache,
+                         SharedCacheStore sharedStore,
+                         CacheInvalidationBus invalidationBus,
+                         String nodeId) {
+        super(false);
+        this.name = name;
+        this.localCache = localCache;
+        this.sharedStore = sharedStore;
+        this.invalidationBus = invalidationBus;
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getLocalCache() {
+        return localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        // getIfPresent never triggers a load, even when L1 is a loading cache
+        Object value = localCache.getIfPresent(key);
+        if (value == null && sharedStore != null) {
+            value = sharedStore.get(name, key);
+            if (value != null) {
+                localCache.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) fromStoreValue(value);
+        }
+
+        T loaded;
+        try {
+            loaded = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (loaded != null) {
+            put(key, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        localCache.put(key, storeValue);
+        if (sharedStore != null) {
+            sharedStore.put(name, key, storeValue);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictLocal(key);
+        if (sharedStore != null) {
+            sharedStore.evict(name, key);
+        }
+        invalidationBus.publish(new CacheInvalidation(nodeId, name, String.valueOf(key)));
+    }
+
+    @Override
+    public void clear() {
+        clearLocal();
+        if (sharedStore != null) {
+            sharedStore.clear(name);
+        }
+        invalidationBus.publish(new CacheInvalidation(nodeId, name, null));
+    }
+
+    void evictLocal(Object key) {
+        localCache.invalidate(key);
+    }
+
+    void clearLocal() {
+        localCache.invalidateAll();
+    }
+}
@@ -0,0 +1,75 @@
+package org.goit.urlshortener.common.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps every cache of a {@link CaffeineCacheManager} into a {@link TwoLevelCache}
+ * and applies invalidations published by other nodes to the local level.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CaffeineCacheManager localCacheManager;
+    private final SharedCacheStore sharedStore;
+    private final CacheInvalidationBus invalidationBus;
+    private final String nodeId;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CaffeineCacheManager localCacheManager,
+                                SharedCacheStore sharedStore,
+                                CacheInvalidationBus invalidationBus,
+                                String nodeId) {
+        this.localCacheManager = localCacheManager;
+        this.sharedStore = sharedStore;
+        this.invalidationBus = invalidationBus;
+        this.nodeId = nodeId;
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return localCacheManager.getCacheNames();
+    }
+
+    @SuppressWarnings("unchecked")
+    private TwoLevelCache createCache(String name) {
+        Cache localCache = localCacheManager.getCache(name);
+        if (localCache == null) {
+            return null;
+        }
+        return new TwoLevelCache(name,
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) localCache.getNativeCache(),
+                sharedStore, invalidationBus, nodeId);
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.originNodeId())) {
+            // Already applied locally by the publishing cache
+            return;
+        }
+        if (invalidation.cacheName() == null) {
+            caches.values().forEach(TwoLevelCache::clearLocal);
+            return;
+        }
+
+        TwoLevelCache cache = caches.get(invalidation.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.key() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+}
@@ -1,25 +1,123 @@
 package org.goit.urlshortener.common.config;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.goit.urlshortener.common.cache.CacheInvalidationBus;
+import org.goit.urlshortener.common.cache.InMemorySharedCacheStore;
+import org.goit.urlshortener.common.cache.LocalCacheInvalidationBus;
+import org.goit.urlshortener.common.cache.PostgresCacheInvalidationBus;
+import org.goit.urlshortener.common.cache.SharedCacheStore;
+import org.goit.urlshortener.common.cache.TwoLevelCache;
+import org.goit.urlshortener.common.cache.TwoLevelCacheManager;
+import org.goit.urlshortener.common.config.CacheProperties.CacheSpec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import java.util.Map;
 
 @Configuration
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfig {
+
+    public static final String REDIRECT_TARGETS = "redirectTargets";
+    public static final String REDIRECT_MISSES = "redirectMisses";
+    public static final String USER_DETAILS = "userDetails";
+    public static final String CACHE_LOADER_SUFFIX = "CacheLoader";
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties,
+                                     Map<String, CacheLoader<Object, Object>> cacheLoaders,
+                                     ObjectProvider<SharedCacheStore> sharedCacheStore,
+                                     CacheInvalidationBus cacheInvalidationBus) {
+        return new TwoLevelCacheManager(localCacheManager(cacheProperties, cacheLoaders),
+                sharedCacheStore.getIfAvailable(), cacheInvalidationBus, cacheProperties.getNodeId());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidation-bus", havingValue = "local", matchIfMissing = true)
+    public CacheInvalidationBus localCacheInvalidationBus() {
+        return new LocalCacheInvalidationBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidation-bus", havingValue = "postgres")
+    public CacheInvalidationBus postgresCacheInvalidationBus(DataSource dataSource) {
+        PostgresCacheInvalidationBus bus = new PostgresCacheInvalidationBus(dataSource);
+        bus.start();
+        return bus;
+    }
+
     @Bean
-    public Caffeine<Object, Object> caffeine() {
-        return Caffeine.newBuilder()
-                .maximumSize(100)
-                .expireAfterWrite(10, TimeUnit.MINUTES);
+    @ConditionalOnProperty(name = "app.cache.shared-store", havingValue = "in-memory")
+    public SharedCacheStore inMemorySharedCacheStore() {
+        return new InMemorySharedCacheStore();
     }
+
     @Bean
-    public CacheManager cacheManager(Caffeine<Object, Object> caffeine) {
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(cache.getLocalCache(), cache.getName(), tags);
+    }
+
+    static CaffeineCacheManager localCacheManager(CacheProperties cacheProperties,
+                                                  Map<String, CacheLoader<Object, Object>> cacheLoaders) {
+        CacheSpec defaults = cacheProperties.getDefaults();
+        if (defaults.getRefreshAfterWrite() != null) {
+            throw new IllegalStateException("refresh-after-write can only be set for a named cache spec");
+        }
+
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCaffeine(caffeine);
+        cacheManager.setCaffeine(caffeine("default", defaults, defaults));
+
+        cacheProperties.getSpecs().forEach((cacheName, spec) -> {
+            Caffeine<Object, Object> caffeine = caffeine(cacheName, spec, defaults);
+            CacheLoader<Object, Object> loader = cacheLoaders.get(cacheName + CACHE_LOADER_SUFFIX);
+            if (spec.getRefreshAfterWrite() != null) {
+                if (loader == null) {
+                    throw new IllegalStateException("Cache '" + cacheName + "' sets refresh-after-write but no "
+                            + cacheName + CACHE_LOADER_SUFFIX + " bean is defined");
+                }
+                cacheManager.registerCustomCache(cacheName, caffeine.build(loader));
+            } else {
+                cacheManager.registerCustomCache(cacheName, caffeine.build());
+            }
+        });
         return cacheManager;
     }
+
+    static Caffeine<Object, Object> caffeine(String cacheName, CacheSpec spec, CacheSpec defaults) {
+        CacheSpec bounds = spec.getMaximumSize() == null && spec.getMaximumWeight() == null ? defaults : spec;
+        CacheSpec expiry = spec.getExpireAfterWrite() == null && spec.getExpireAfterAccess() == null ? defaults : spec;
+
+        if (bounds.getMaximumSize() != null && bounds.getMaximumWeight() != null) {
+            throw new IllegalStateException("Cache '" + cacheName + "' must set either maximum-size or maximum-weight, not both");
+        }
+
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder();
+        if (bounds.getMaximumWeight() != null) {
+            caffeine = caffeine.maximumWeight(bounds.getMaximumWeight()).weigher(new CacheEntryWeigher());
+        } else if (bounds.getMaximumSize() != null) {
+            caffeine = caffeine.maximumSize(bounds.getMaximumSize());
+        }
+        if (expiry.getExpireAfterWrite() != null) {
+            caffeine = caffeine.expireAfterWrite(expiry.getExpireAfterWrite());
+        }
+        if (expiry.getExpireAfterAccess() != null) {
+            caffeine = caffeine.expireAfterAccess(expiry.getExpireAfterAccess());
+        }
+        if (spec.getRefreshAfterWrite() != null) {
+            caffeine = caffeine.refreshAfterWrite(spec.getRefreshAfterWrite());
+        }
+        if (spec.isRecordStats()) {
+            caffeine = caffeine.recordStats();
+        }
+        return caffeine;
+    }
 }
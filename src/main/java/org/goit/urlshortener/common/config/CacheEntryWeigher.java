@@ -0,0 +1,25 @@
+package org.goit.urlshortener.common.config;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.goit.urlshortener.url.model.RedirectTarget;
+
+/**
+ * Approximates the retained size of a cache entry in bytes, dominated by the original URL.
+ * Values of unknown types are weighed as a fixed-size entry.
+ */
+public class CacheEntryWeigher implements Weigher<Object, Object> {
+
+    static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        int weight = ENTRY_OVERHEAD_BYTES;
+        if (key instanceof String stringKey) {
+            weight += stringKey.length();
+        }
+        if (value instanceof RedirectTarget target && target.originalUrl() != null) {
+            weight += target.originalUrl().length();
+        }
+        return weight;
+    }
+}
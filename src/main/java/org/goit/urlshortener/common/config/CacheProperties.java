@@ -0,0 +1,46 @@
+package org.goit.urlshortener.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-cache Caffeine settings, e.g. {@code app.cache.specs[redirectTargets].maximum-weight=256MB}.
+ * Caches without their own spec, and unset bounds or expiry of a spec, fall back to {@code app.cache.defaults}.
+ * <p>
+ * The tiers are chosen with {@code app.cache.shared-store} ({@code in-memory} or unset for L1 only)
+ * and {@code app.cache.invalidation-bus} ({@code local} or {@code postgres} for multi-node deployments).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    /**
+     * Identifies this node on the invalidation bus, so it skips its own messages.
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    private CacheSpec defaults = new CacheSpec();
+
+    private Map<String, CacheSpec> specs = new LinkedHashMap<>();
+
+    @Data
+    public static class CacheSpec {
+        private Long maximumSize;
+        /**
+         * Approximate bound in bytes, entries are weighed by {@link CacheEntryWeigher}.
+         */
+        private Long maximumWeight;
+        private Duration expireAfterWrite;
+        private Duration expireAfterAccess;
+        /**
+         * Requires a {@code CacheLoader} bean named {@code <cacheName>CacheLoader}.
+         */
+        private Duration refreshAfterWrite;
+        private boolean recordStats = true;
+    }
+}
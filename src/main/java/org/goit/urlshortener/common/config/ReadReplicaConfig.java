@@ -0,0 +1,116 @@
+package org.goit.urlshortener.common.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.goit.urlshortener.common.config.ReadReplicaProperties.Target;
+import org.goit.urlshortener.common.datasource.ReplicaLagMonitor;
+import org.goit.urlshortener.common.datasource.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the read replicas and everything else to the primary.
+ * <p>
+ * The application {@link DataSource} is a {@link LazyConnectionDataSourceProxy}: it fetches the physical
+ * connection on the first statement, after the transaction manager has marked the connection read-only,
+ * and takes it from {@link ReplicaRoutingDataSource} in that case. Flyway, non-transactional JDBC calls
+ * and read-write transactions keep using the primary pool. Redirect lookups run without a transaction
+ * on purpose: their results are cached, and a lagging replica would re-cache rows that were just changed.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty(name = "app.datasource.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final String REPLICA_PREFIX = "replica-";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+                                              ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+        JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("primary");
+        if (details != null) {
+            dataSource.setJdbcUrl(details.getJdbcUrl());
+            dataSource.setUsername(details.getUsername());
+            dataSource.setPassword(details.getPassword());
+            dataSource.setDriverClassName(details.getDriverClassName());
+        } else {
+            dataSource.setJdbcUrl(properties.determineUrl());
+            dataSource.setUsername(properties.determineUsername());
+            dataSource.setPassword(properties.determinePassword());
+            dataSource.setDriverClassName(properties.determineDriverClassName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(ReadReplicaProperties properties,
+                                                             HikariDataSource primaryDataSource,
+                                                             MeterRegistry meterRegistry) {
+        List<Target> targets = properties.getTargets();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < targets.size(); i++) {
+            replicas.put(REPLICA_PREFIX + i, replicaPool(REPLICA_PREFIX + i, targets.get(i), primaryDataSource, meterRegistry));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReadReplicaProperties properties,
+                                               ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicaRoutingDataSource.getReplicas().forEach(name ->
+                replicas.put(name, (DataSource) replicaRoutingDataSource.getResolvedDataSources().get(name)));
+        return new ReplicaLagMonitor(replicaRoutingDataSource, replicas, properties.getMaxLagMs(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    /**
+     * Pool settings are copied from the primary. The pool starts on its first connection request,
+     * so an unreachable replica does not prevent startup.
+     */
+    private static HikariDataSource replicaPool(String name, Target target, HikariDataSource primary,
+                                                MeterRegistry meterRegistry) {
+        HikariDataSource replica = new HikariDataSource();
+        primary.copyStateTo(replica);
+        replica.setPoolName(name);
+        replica.setJdbcUrl(target.getUrl());
+        if (target.getUsername() != null) {
+            replica.setUsername(target.getUsername());
+            replica.setPassword(target.getPassword());
+        }
+        if (target.getMaximumPoolSize() != null) {
+            replica.setMaximumPoolSize(target.getMaximumPoolSize());
+            replica.setMinimumIdle(Math.min(replica.getMinimumIdle(), target.getMaximumPoolSize()));
+        }
+        replica.setReadOnly(true);
+        if (replica.getMetricRegistry() == null && replica.getMetricsTrackerFactory() == null) {
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        }
+        return replica;
+    }
+}
@@ -0,0 +1,34 @@
+package org.goit.urlshortener.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas for read-only transactions, e.g. {@code app.datasource.read-replicas.targets[0].url}.
+ * Every replica gets its own Hikari pool with the {@code spring.datasource.hikari} settings of the primary,
+ * and the primary's credentials unless the target sets its own.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.read-replicas")
+public class ReadReplicaProperties {
+
+    private boolean enabled;
+
+    /**
+     * Replicas lagging further behind receive no reads; with no replica left, reads go to the primary.
+     */
+    private long maxLagMs = 1000;
+
+    private List<Target> targets = new ArrayList<>();
+
+    @Data
+    public static class Target {
+        private String url;
+        private String username;
+        private String password;
+        private Integer maximumPoolSize;
+    }
+}
@@ -0,0 +1,31 @@
+package org.goit.urlshortener.common.config;
+
+import org.goit.urlshortener.url.controller.RedirectFilter;
+import org.goit.urlshortener.url.service.ClickEventPipeline;
+import org.goit.urlshortener.url.service.RedirectAccessLog;
+import org.goit.urlshortener.url.service.UrlService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "url.redirect.fast-path.enabled", havingValue = "true", matchIfMissing = true)
+public class RedirectFilterConfig {
+
+    /**
+     * Ordered after the observation filter, so redirects still show up in request metrics,
+     * and ahead of the Spring Security filter chain.
+     */
+    @Bean
+    public FilterRegistrationBean<RedirectFilter> redirectFilter(UrlService urlService,
+                                                                 RedirectAccessLog redirectAccessLog,
+                                                                 ClickEventPipeline clickEventPipeline) {
+        FilterRegistrationBean<RedirectFilter> registration =
+                new FilterRegistrationBean<>(new RedirectFilter(urlService, redirectAccessLog, clickEventPipeline));
+        registration.addUrlPatterns("/s/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+}
@@ -2,6 +2,7 @@ package org.goit.urlshortener.common.config;
 
 import lombok.RequiredArgsConstructor;
 import org.goit.urlshortener.auth.security.JwtAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,6 +25,9 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${management.server.port:-1}")
+    private int managementPort = -1;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -43,6 +47,9 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers("/api/v1/signup", "/api/v1/login").permitAll()
+                        // The scrape is only open on the internal management port
+                        .requestMatchers(request -> request.getLocalPort() == managementPort
+                                && "/actuator/prometheus".equals(request.getRequestURI())).permitAll()
                         .requestMatchers("/swagger-ui.html", "/swagger-resources/**", "/api-docs/**",
                                 "/swagger-ui/**", "/s/", "/s/{shortCode}").permitAll()
                         .anyRequest().authenticated()
@@ -0,0 +1,79 @@
+package org.goit.urlshortener.common.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures the replication lag of every replica and takes a replica out of rotation while its lag exceeds
+ * {@code app.datasource.read-replicas.max-lag-ms}, it cannot be reached or it is not streaming from the
+ * primary. The lag in milliseconds is published as {@code db.replica.lag}, {@code NaN} while it is unknown.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // A replica without a streaming WAL receiver is cut off from the primary: its replayed position
+    // says nothing about how far behind it is, so it reports no lag (NULL) and leaves the rotation.
+    // Only a streaming replica that has replayed everything it received is up to date, however old
+    // its last transaction is. Without pg_read_all_stats the status is hidden, the row still shows.
+    private static final String LAG_SQL = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver
+                                 WHERE COALESCE(status, 'streaming') = 'streaming') THEN NULL
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            END""";
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final Map<String, Double> lags = new ConcurrentHashMap<>();
+    private final long maxLagMillis;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource,
+                             Map<String, DataSource> replicas,
+                             long maxLagMillis,
+                             MeterRegistry meterRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.maxLagMillis = maxLagMillis;
+        replicas.forEach((name, dataSource) -> {
+            this.replicas.put(name, new JdbcTemplate(dataSource));
+            Gauge.builder("db.replica.lag", lags, values -> values.getOrDefault(name, Double.NaN))
+                    .description("Replication lag of the read replica")
+                    .baseUnit("milliseconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.read-replicas.lag-check-interval-ms:1000}")
+    public void check() {
+        replicas.forEach((name, jdbcTemplate) -> {
+            double lag;
+            try {
+                Double measured = jdbcTemplate.queryForObject(LAG_SQL, Double.class);
+                lag = measured != null ? measured : Double.NaN;
+            } catch (RuntimeException e) {
+                log.debug("Replica {} is unreachable", name, e);
+                lag = Double.NaN;
+            }
+            lags.put(name, lag);
+
+            boolean healthy = lag <= maxLagMillis;
+            if (routingDataSource.setHealthy(name, healthy)) {
+                if (healthy) {
+                    log.info("Replica {} is back in rotation, lag {} ms", name, lag);
+                } else {
+                    log.warn("Replica {} taken out of rotation, lag {} ms exceeds {} ms", name, lag, maxLagMillis);
+                }
+            }
+        });
+    }
+}
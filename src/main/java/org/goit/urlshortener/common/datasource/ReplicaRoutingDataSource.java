@@ -0,0 +1,62 @@
+package org.goit.urlshortener.common.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections to the healthy read replicas in round-robin order, or to the primary
+ * when no replica is healthy. Replicas start unhealthy until {@link ReplicaLagMonitor} has checked them.
+ * <p>
+ * Used as the read-only target of a {@code LazyConnectionDataSourceProxy}, so it only ever serves
+ * read-only transactions.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicas;
+    private final Set<String> healthy = new LinkedHashSet<>();
+    private volatile List<String> healthyReplicas = List.of();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        this.replicas = List.copyOf(replicas.keySet());
+    }
+
+    public List<String> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * @return whether the health of the replica changed
+     */
+    public synchronized boolean setHealthy(String replica, boolean isHealthy) {
+        boolean changed = isHealthy ? healthy.add(replica) : healthy.remove(replica);
+        if (changed) {
+            // Keep the configured order, so round robin does not depend on the order of state changes
+            healthyReplicas = replicas.stream().filter(healthy::contains).toList();
+        }
+        return changed;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> candidates = healthyReplicas;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+}
@@ -6,6 +6,8 @@ import lombok.Getter;
 public enum ExceptionMessages {
     SHORT_CODE_ALREADY_EXISTS("Short code already exists"),
     INVALID_ORIGINAL_URL_DATA("Invalid original URL data"),
+    INVALID_SHORT_CODE("Invalid short code, codes starting with '_' are reserved for generated codes"),
+    SHORT_CODE_TOO_LONG("Invalid short code, at most 10 characters are allowed"),
     INVALID_URL_ID_PROVIDED("Invalid URL ID provided"),
     URL_NOT_FOUND("URL not found"),
     USER_NOT_FOUND("User not found"),
@@ -13,7 +15,9 @@ public enum ExceptionMessages {
     USER_ALREADY_EXISTS("User already exists"),
     URL_NOT_FOUND_OR_UNAUTHORIZED("URL not found or user not authorized"),
     URL_EXPIRED("This URL has expired"),
-    USER_NOT_AUTHORIZED("User is not authorized");
+    USER_NOT_AUTHORIZED("User is not authorized"),
+    BATCH_TOO_LARGE("Batch contains too many URLs"),
+    MALFORMED_BATCH_ITEM("Invalid batch item, the line is not a JSON object with URL details");
 
     private final String message;
 
@@ -1,9 +1,12 @@
 package org.goit.urlshortener.url.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.RedirectTarget;
+import org.goit.urlshortener.url.service.ClickEventPipeline;
+import org.goit.urlshortener.url.service.RedirectAccessLog;
 import org.goit.urlshortener.url.service.UrlService;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,21 +18,27 @@ import org.springframework.web.servlet.view.RedirectView;
 public class RedirectController {
 
     private final UrlService urlService;
+    private final RedirectAccessLog accessLog;
+    private final ClickEventPipeline clickEventPipeline;
 
-    @Cacheable("RedirectView")
     @GetMapping("/s/{shortCode}")
-    public RedirectView redirectToOriginalUrl(@PathVariable String shortCode) {
+    public RedirectView redirectToOriginalUrl(@PathVariable String shortCode, HttpServletRequest request) {
+        long start = System.nanoTime();
         try {
-            Url url = urlService.getValidUrl(shortCode);
+            RedirectTarget target = urlService.getRedirectTarget(shortCode);
 
-            urlService.incrementClickCount(url);
+            urlService.incrementClickCount(target.urlId());
+            clickEventPipeline.record(target.urlId(), request.getHeader(HttpHeaders.REFERER),
+                    request.getHeader(HttpHeaders.USER_AGENT), request.getRemoteAddr());
 
-            RedirectView redirectView = new RedirectView(url.getOriginalUrl());
+            RedirectView redirectView = new RedirectView(target.originalUrl());
             redirectView.setStatusCode(HttpStatus.MOVED_PERMANENTLY);
+            accessLog.record(shortCode, HttpStatus.MOVED_PERMANENTLY.value(), start);
             return redirectView;
         } catch (RuntimeException e) {
             RedirectView error = new RedirectView("/error");
             error.setStatusCode(HttpStatus.GONE);
+            accessLog.record(shortCode, HttpStatus.GONE.value(), start);
             return error;
         }
     }
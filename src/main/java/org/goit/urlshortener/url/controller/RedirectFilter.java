@@ -0,0 +1,98 @@
+package org.goit.urlshortener.url.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.goit.urlshortener.url.model.RedirectTarget;
+import org.goit.urlshortener.url.service.ClickEventPipeline;
+import org.goit.urlshortener.url.service.RedirectAccessLog;
+import org.goit.urlshortener.url.service.UrlService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Serves {@code GET /s/{shortCode}} before the security filter chain and the DispatcherServlet run.
+ * <p>
+ * Redirects are public and need no authentication, so this writes the {@code Location} header directly
+ * with the same statuses as {@link RedirectController}. Anything that is not a single short code segment
+ * continues down the regular chain. The chain's security headers are not added here, so the cache headers
+ * are set explicitly: browsers must not cache the permanent redirect, or repeat clicks would skip the
+ * click count and changed, deleted or expired links would keep redirecting.
+ */
+@RequiredArgsConstructor
+public class RedirectFilter extends OncePerRequestFilter {
+
+    static final String REDIRECT_PATH_PREFIX = "/s/";
+    private static final String ERROR_LOCATION = "/error";
+
+    private final UrlService urlService;
+    private final RedirectAccessLog accessLog;
+    private final ClickEventPipeline clickEventPipeline;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String shortCode = extractShortCode(request);
+        if (shortCode == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        RedirectTarget target;
+        try {
+            target = urlService.getRedirectTarget(shortCode);
+        } catch (RuntimeException e) {
+            response.setStatus(HttpServletResponse.SC_GONE);
+            setNoStoreHeaders(response);
+            response.setHeader(HttpHeaders.LOCATION, request.getContextPath() + ERROR_LOCATION);
+            accessLog.record(shortCode, HttpServletResponse.SC_GONE, start);
+            return;
+        }
+
+        urlService.incrementClickCount(target.urlId());
+        clickEventPipeline.record(target.urlId(), request.getHeader(HttpHeaders.REFERER),
+                request.getHeader(HttpHeaders.USER_AGENT), request.getRemoteAddr());
+        response.setStatus(HttpServletResponse.SC_MOVED_PERMANENTLY);
+        setNoStoreHeaders(response);
+        response.setHeader(HttpHeaders.LOCATION, target.originalUrl());
+        accessLog.record(shortCode, HttpServletResponse.SC_MOVED_PERMANENTLY, start);
+    }
+
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return true;
+    }
+
+    /**
+     * Same cache headers as Spring Security adds to the responses of the regular chain.
+     */
+    private static void setNoStoreHeaders(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, max-age=0, must-revalidate");
+        response.setHeader(HttpHeaders.PRAGMA, "no-cache");
+        response.setHeader(HttpHeaders.EXPIRES, "0");
+    }
+
+    /**
+     * Returns the code of a {@code GET}/{@code HEAD /s/{shortCode}} request, or {@code null} for any other request.
+     */
+    private static String extractShortCode(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return null;
+        }
+
+        String uri = request.getRequestURI();
+        int start = request.getContextPath().length() + REDIRECT_PATH_PREFIX.length();
+        if (uri.length() <= start
+                || !uri.startsWith(REDIRECT_PATH_PREFIX, start - REDIRECT_PATH_PREFIX.length())
+                || uri.indexOf('/', start) >= 0) {
+            return null;
+        }
+        return uri.substring(start);
+    }
+}
@@ -1,6 +1,9 @@
 package org.goit.urlshortener.url.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -8,23 +11,52 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.goit.urlshortener.common.exception.ShortUrlException;
 import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.UrlSummary;
 import org.goit.urlshortener.auth.model.User;
 import org.goit.urlshortener.url.model.mapper.UrlMapper;
+import org.goit.urlshortener.url.model.dto.UrlBatchItemResponse;
+import org.goit.urlshortener.url.model.dto.UrlClickStatsResponse;
 import org.goit.urlshortener.url.model.dto.UrlCreateRequest;
 import org.goit.urlshortener.url.model.dto.UrlUpdateRequest;
 import org.goit.urlshortener.url.model.dto.UrlResponse;
+import org.goit.urlshortener.url.model.dto.UrlSliceResponse;
+import org.goit.urlshortener.url.service.UrlBatchService;
+import org.goit.urlshortener.url.service.UrlCursor;
+import org.goit.urlshortener.url.service.UrlExportService;
 import org.goit.urlshortener.url.service.UrlService;
+import org.goit.urlshortener.url.service.UrlStatsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.goit.urlshortener.common.exception.ExceptionMessages.BATCH_TOO_LARGE;
+import static org.goit.urlshortener.common.exception.ExceptionMessages.MALFORMED_BATCH_ITEM;
 import static org.springframework.data.web.config.EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO;
 
 @Slf4j
@@ -36,8 +68,18 @@ import static org.springframework.data.web.config.EnableSpringDataWebSupport.Pag
         @Tag(name = "URL controller", description = "Provides operations for managing URLs")
 })
 public class UrlController {
+    // Upper bound of both listings, so neither can be asked for a user's whole table in one page
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UrlService urlService;
+    private final UrlBatchService urlBatchService;
+    private final UrlExportService urlExportService;
+    private final UrlStatsService urlStatsService;
     private final UrlMapper urlMapper;
+    private final ObjectMapper objectMapper;
+
+    @Value("${url.batch.max-size:50000}")
+    private int maxBatchSize = 50_000;
 
     @Operation(summary = "Display the list of URLs",
             description = """
@@ -45,7 +87,7 @@ public class UrlController {
                     
                     **Pagination Parameters:**
                     - `page` (optional, default: `0`): The page number (zero-based index) to retrieve.
-                    - `size` (optional, default: `10`): The number of URLs per page.
+                    - `size` (optional, default: `10`, at most `100`): The number of URLs per page.
                     - `status` (optional, default: `all`): Filter for `all`, `active`, `expired` URLs.
                     
                     **Example Request:**
@@ -53,19 +95,85 @@ public class UrlController {
                     """,
             responses = {
                     @ApiResponse(responseCode = "200", description = "Successful operation"),
+                    @ApiResponse(responseCode = "400", description = "Invalid page size"),
                     @ApiResponse(responseCode = "403", description = "User does not have permission to access this resource")
             })
 
     @GetMapping
     public Page<UrlResponse> listUrls(@RequestParam(defaultValue = "0") int page,
-                                      @RequestParam(defaultValue = "10") int size,
+                                      @RequestParam(defaultValue = "10") @Positive @Max(MAX_PAGE_SIZE) int size,
                                       @RequestParam(defaultValue = "all") String status,
                                       @AuthenticationPrincipal User currentUser) {
         PageRequest pageRequest = PageRequest.of(page, size);
-        Page<Url> urls = urlService.listUrlsByStatus(currentUser, status, pageRequest);
+        Page<UrlSummary> urls = urlService.listUrlsByStatus(currentUser, status, pageRequest);
         return urls.map(urlMapper::toUrlResponse);
     }
 
+    @Operation(summary = "Display the list of URLs using a cursor",
+            description = """
+                    Retrieve URLs belonging to the authenticated user, newest first, without counting them.
+                    Each page costs the same no matter how deep it is.
+                    
+                    **Parameters:**
+                    - `after` (required, may be empty): `nextCursor` from the previous response; empty for the first page.
+                    - `size` (optional, default: `10`, at most `100`): The number of URLs per page.
+                    - `status` (optional, default: `all`): Filter for `all`, `active`, `expired` URLs.
+                    
+                    **Example Request:**
+                    `GET http://localhost:8080/api/v1/urls?after=&size=10&status=all`
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful operation"),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor, page size or status"),
+                    @ApiResponse(responseCode = "403", description = "User does not have permission to access this resource")
+            })
+
+    @GetMapping(params = "after")
+    public UrlSliceResponse listUrlsAfter(@RequestParam String after,
+                                          @RequestParam(defaultValue = "10") @Positive @Max(MAX_PAGE_SIZE) int size,
+                                          @RequestParam(defaultValue = "all") String status,
+                                          @AuthenticationPrincipal User currentUser) {
+        Slice<UrlSummary> urls = urlService.listUrlsByStatusAfter(currentUser, status, UrlCursor.decode(after), size);
+        List<UrlResponse> content = urls.map(urlMapper::toUrlResponse).getContent();
+        String nextCursor = urls.hasNext() ? UrlCursor.encode(urls.getContent().getLast().id()) : null;
+        return new UrlSliceResponse(content, urls.hasNext(), nextCursor);
+    }
+
+    @Operation(summary = "Export all URLs",
+            description = """
+                    Stream every URL belonging to the authenticated user in a single response.
+                    
+                    **Parameters:**
+                    - `status` (optional, default: `all`): Filter for `all`, `active`, `expired` URLs.
+                    - `format` (optional, default: `ndjson`): `ndjson` (one JSON object per line) or `csv`.
+                    
+                    **Example Request:**
+                    `GET http://localhost:8080/api/v1/urls/export?status=active&format=csv`
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful operation"),
+                    @ApiResponse(responseCode = "400", description = "Invalid status or format"),
+                    @ApiResponse(responseCode = "403", description = "User does not have permission to access this resource")
+            })
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "all") String status,
+                                                        @RequestParam(defaultValue = "ndjson") String format,
+                                                        @AuthenticationPrincipal User currentUser) {
+        UrlExportService.Format exportFormat = UrlExportService.Format.from(format);
+        urlExportService.validateStatus(status);
+
+        StreamingResponseBody body = outputStream ->
+                urlExportService.exportUrls(currentUser, status, exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("urls." + exportFormat.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @Operation(
             summary = "Create a new short code for URL",
             description = "Add a new shortCode to the system for the authenticated user",
@@ -98,6 +206,76 @@ public class UrlController {
         return urlMapper.toUrlResponse(savedUrl);
     }
 
+    @Operation(
+            summary = "Create short codes for many URLs at once",
+            description = """
+                    Accepts a JSON array of URL details, or one JSON object per line with
+                    `Content-Type: application/x-ndjson`. Items are validated and created independently;
+                    the response lists the outcome of every item in request order.
+                    """,
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "URL details to create",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = UrlCreateRequest.class)),
+                            examples = @ExampleObject(value = "[{ \"originalUrl\": \"https://example.com\" }, { \"originalUrl\": \"https://example.org\", \"shortCode\": \"example\" }]"))
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Per-item results of the batch",
+                            content = {@Content(mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = UrlBatchItemResponse.class)))}),
+                    @ApiResponse(responseCode = "400", description = "Batch is too large or malformed",
+                            content = @Content),
+                    @ApiResponse(responseCode = "403", description = "User does not have permission to access this resource",
+                            content = @Content)
+            })
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<UrlBatchItemResponse> createBatch(@RequestBody List<UrlCreateRequest> newUrlRequests,
+                                                  @AuthenticationPrincipal User currentUser) {
+        return urlBatchService.createUrls(newUrlRequests, currentUser);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public List<UrlBatchItemResponse> createBatchFromStream(InputStream body,
+                                                            @AuthenticationPrincipal User currentUser) throws IOException {
+        List<UrlCreateRequest> newUrlRequests = new ArrayList<>();
+        List<Integer> malformedItems = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                // Stop reading as soon as the stream is known to be too large
+                if (newUrlRequests.size() == maxBatchSize) {
+                    throw new ShortUrlException(BATCH_TOO_LARGE.getMessage());
+                }
+                UrlCreateRequest request = readBatchLine(line);
+                if (request == null) {
+                    malformedItems.add(newUrlRequests.size());
+                }
+                newUrlRequests.add(request);
+            }
+        }
+
+        List<UrlBatchItemResponse> results = new ArrayList<>(urlBatchService.createUrls(newUrlRequests, currentUser));
+        malformedItems.forEach(i ->
+                results.set(i, UrlBatchItemResponse.failed(i, null, MALFORMED_BATCH_ITEM.getMessage())));
+        return results;
+    }
+
+    private UrlCreateRequest readBatchLine(String line) {
+        try {
+            return objectMapper.readValue(line, UrlCreateRequest.class);
+        } catch (JsonProcessingException e) {
+            // Reported as a failed item instead of failing the whole stream
+            log.debug("Malformed batch line: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+
     @Operation(summary = "Update URL information by ID",
             description = "Update the details of an existing URL using its unique identifier",
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -176,4 +354,37 @@ public class UrlController {
             @PathVariable String shortCode) {
         return urlMapper.toUrlResponse(urlService.findByShortCode(shortCode));
     }
+
+    @Operation(summary = "Display click statistics of a URL",
+            description = """
+                    Clicks of a URL owned by the authenticated user, per minute, hour or day.
+                    Counts are pre-aggregated and may lag behind by a few seconds.
+                    
+                    **Parameters:**
+                    - `granularity` (optional, default: `hour`): `minute`, `hour` or `day`.
+                    - `from` (optional): ISO date-time, rounded down to the bucket start. Defaults to 1 hour,
+                      2 days or 30 days before `to`, depending on the granularity.
+                    - `to` (optional, default: now): ISO date-time, exclusive.
+                    
+                    **Example Request:**
+                    `GET http://localhost:8080/api/v1/urls/1/stats?granularity=hour&from=2025-01-01T00:00:00`
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful operation",
+                            content = {@Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = UrlClickStatsResponse.class))}),
+                    @ApiResponse(responseCode = "400", description = "Invalid granularity or range"),
+                    @ApiResponse(responseCode = "403", description = "User does not have permission to access this resource"),
+                    @ApiResponse(responseCode = "404", description = "URL not found")
+            })
+
+    @GetMapping("/{id}/stats")
+    public UrlClickStatsResponse getStats(
+            @PathVariable @Positive Long id,
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @AuthenticationPrincipal User currentUser) {
+        return urlStatsService.getClickStats(id, currentUser, granularity, from, to);
+    }
 }
@@ -0,0 +1,39 @@
+package org.goit.urlshortener.url.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One redirect as stored in {@code click_events}.
+ */
+public record ClickEvent(Long urlId,
+                         LocalDateTime clickedAt,
+                         String referrerHost,
+                         UserAgentClass userAgentClass,
+                         String country) {
+
+    public enum UserAgentClass {
+        BROWSER,
+        MOBILE,
+        BOT,
+        OTHER;
+
+        public static UserAgentClass of(String userAgent) {
+            if (userAgent == null || userAgent.isBlank()) {
+                return OTHER;
+            }
+            String agent = userAgent.toLowerCase();
+            if (agent.contains("bot") || agent.contains("spider") || agent.contains("crawl")
+                    || agent.contains("preview") || agent.startsWith("curl") || agent.startsWith("wget")) {
+                return BOT;
+            }
+            if (agent.contains("mobile") || agent.contains("android") || agent.contains("iphone")
+                    || agent.contains("ipad")) {
+                return MOBILE;
+            }
+            if (agent.startsWith("mozilla/") || agent.startsWith("opera/")) {
+                return BROWSER;
+            }
+            return OTHER;
+        }
+    }
+}
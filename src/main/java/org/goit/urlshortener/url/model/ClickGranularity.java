@@ -0,0 +1,35 @@
+package org.goit.urlshortener.url.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket sizes of the click rollups, with the window returned when a stats request gives no range.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ClickGranularity {
+    MINUTE(ChronoUnit.MINUTES, Duration.ofHours(1)),
+    HOUR(ChronoUnit.HOURS, Duration.ofDays(2)),
+    DAY(ChronoUnit.DAYS, Duration.ofDays(30));
+
+    private final ChronoUnit unit;
+    private final Duration defaultWindow;
+
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    public static ClickGranularity from(String granularity) {
+        return switch (granularity.toLowerCase()) {
+            case "minute" -> MINUTE;
+            case "hour" -> HOUR;
+            case "day" -> DAY;
+            default -> throw new IllegalArgumentException("Invalid granularity: " + granularity);
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package org.goit.urlshortener.url.model;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Primary key of a row in {@code url_click_rollups}. Ordered like the table's primary key,
+ * so batches applied in this order take row locks in the same order on every node.
+ */
+public record ClickRollupKey(Long urlId,
+                             ClickGranularity granularity,
+                             LocalDateTime bucketStart) implements Comparable<ClickRollupKey> {
+
+    private static final Comparator<ClickRollupKey> ORDER = Comparator.comparing(ClickRollupKey::urlId)
+            .thenComparing(key -> key.granularity().name())
+            .thenComparing(ClickRollupKey::bucketStart);
+
+    @Override
+    public int compareTo(ClickRollupKey other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,16 @@
+package org.goit.urlshortener.url.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Minimal data needed to serve a redirect, cached per short code.
+ */
+public record RedirectTarget(Long urlId,
+                             String originalUrl,
+                             LocalDateTime expiresAt) implements Serializable {
+
+    public boolean isExpiredAt(LocalDateTime now) {
+        return expiresAt != null && expiresAt.isBefore(now);
+    }
+}
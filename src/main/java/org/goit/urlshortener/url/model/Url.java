@@ -5,7 +5,9 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.goit.urlshortener.auth.model.User;
 import org.hibernate.validator.constraints.URL;
 
@@ -18,9 +20,14 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "urls")
 public class Url {
+    /**
+     * Ids reserved per {@code seq_urls_id} call, must match the sequence increment.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "url_seq")
-    @SequenceGenerator(name = "url_seq", sequenceName = "seq_urls_id", allocationSize = 1)
+    @SequenceGenerator(name = "url_seq", sequenceName = "seq_urls_id", allocationSize = Url.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "short_code", nullable = false, unique = true)
@@ -42,8 +49,11 @@ public class Url {
     @Builder.Default
     private Long clickCount = 0L;
 
-    @ManyToOne
+    // Only the owner's id is needed to write or check ownership, so the user row is never loaded with the URL
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     @PrePersist
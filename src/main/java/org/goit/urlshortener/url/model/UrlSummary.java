@@ -0,0 +1,10 @@
+package org.goit.urlshortener.url.model;
+
+/**
+ * Columns of a URL shown in listings, read with a constructor expression instead of loading entities.
+ */
+public record UrlSummary(Long id,
+                         String shortCode,
+                         String originalUrl,
+                         Long clickCount) {
+}
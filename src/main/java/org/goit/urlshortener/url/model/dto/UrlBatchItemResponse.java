@@ -0,0 +1,19 @@
+package org.goit.urlshortener.url.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UrlBatchItemResponse(int index,
+                                   boolean created,
+                                   String originalUrl,
+                                   String shortCode,
+                                   String error) {
+
+    public static UrlBatchItemResponse created(int index, String originalUrl, String shortCode) {
+        return new UrlBatchItemResponse(index, true, originalUrl, shortCode, null);
+    }
+
+    public static UrlBatchItemResponse failed(int index, String originalUrl, String error) {
+        return new UrlBatchItemResponse(index, false, originalUrl, null, error);
+    }
+}
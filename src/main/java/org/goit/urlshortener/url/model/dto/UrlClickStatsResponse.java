@@ -0,0 +1,18 @@
+package org.goit.urlshortener.url.model.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Clicks of one URL per time bucket. Buckets without clicks are omitted.
+ */
+public record UrlClickStatsResponse(Long urlId,
+                                    String granularity,
+                                    LocalDateTime from,
+                                    LocalDateTime to,
+                                    long totalClicks,
+                                    List<Bucket> buckets) {
+
+    public record Bucket(LocalDateTime start, long clicks) {
+    }
+}
@@ -0,0 +1,17 @@
+package org.goit.urlshortener.url.model.dto;
+
+import org.goit.urlshortener.url.model.Url;
+
+import java.time.LocalDateTime;
+
+public record UrlExportRow(String shortCode,
+                           String originalUrl,
+                           LocalDateTime createdAt,
+                           LocalDateTime expiresAt,
+                           Long clickCount) {
+
+    public static UrlExportRow from(Url url) {
+        return new UrlExportRow(url.getShortCode(), url.getOriginalUrl(), url.getCreatedAt(), url.getExpiresAt(),
+                url.getClickCount());
+    }
+}
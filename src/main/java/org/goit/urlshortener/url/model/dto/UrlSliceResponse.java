@@ -0,0 +1,8 @@
+package org.goit.urlshortener.url.model.dto;
+
+import java.util.List;
+
+public record UrlSliceResponse(List<UrlResponse> content,
+                               boolean hasNext,
+                               String nextCursor) {
+}
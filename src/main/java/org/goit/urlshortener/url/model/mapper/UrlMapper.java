@@ -1,6 +1,7 @@
 package org.goit.urlshortener.url.model.mapper;
 
 import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.UrlSummary;
 import org.goit.urlshortener.url.model.dto.UrlCreateRequest;
 import org.goit.urlshortener.url.model.dto.UrlUpdateRequest;
 import org.goit.urlshortener.url.model.dto.UrlResponse;
@@ -18,4 +19,6 @@ public interface UrlMapper {
     Url toUrl(UrlUpdateRequest request);
 
     UrlResponse toUrlResponse(Url url);
+
+    UrlResponse toUrlResponse(UrlSummary url);
 }
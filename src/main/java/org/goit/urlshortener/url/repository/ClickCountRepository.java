@@ -0,0 +1,43 @@
+package org.goit.urlshortener.url.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class ClickCountRepository {
+
+    private static final String ADD_CLICK_COUNT_SQL = "UPDATE urls SET click_count = click_count + ? WHERE id = ?";
+    private static final String INCREMENT_CLICK_COUNT_SQL =
+            "UPDATE urls SET click_count = click_count + 1 WHERE id = ? RETURNING click_count";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Applies the aggregated click deltas in a single JDBC batch.
+     * Rows are updated in key order, so pass a sorted map to keep lock order stable across nodes.
+     */
+    @Transactional
+    public void addClickCounts(Map<Long, Long> clickDeltas) {
+        List<Object[]> batchArgs = clickDeltas.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate(ADD_CLICK_COUNT_SQL, batchArgs);
+    }
+
+    /**
+     * Adds one click in a single statement, so concurrent increments of the same row cannot be lost.
+     * Returns the new count, or empty when the URL does not exist.
+     */
+    @Transactional
+    public Optional<Long> incrementClickCount(Long urlId) {
+        return jdbcTemplate.query(INCREMENT_CLICK_COUNT_SQL, (rs, rowNum) -> rs.getLong(1), urlId).stream()
+                .findFirst();
+    }
+}
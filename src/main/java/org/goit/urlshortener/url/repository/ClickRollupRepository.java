@@ -0,0 +1,86 @@
+package org.goit.urlshortener.url.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.goit.urlshortener.url.model.ClickGranularity;
+import org.goit.urlshortener.url.model.ClickRollupKey;
+import org.goit.urlshortener.url.model.dto.UrlClickStatsResponse.Bucket;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class ClickRollupRepository {
+
+    // Clicks still buffered for a URL deleted since, here or on another node, must not recreate its buckets
+    private static final String ADD_CLICKS_SQL = """
+            INSERT INTO url_click_rollups (url_id, granularity, bucket_start, clicks)
+            SELECT ?, ?, CAST(? AS TIMESTAMP), ?
+            WHERE EXISTS (SELECT 1 FROM urls WHERE id = ?)
+            ON CONFLICT (url_id, granularity, bucket_start)
+            DO UPDATE SET clicks = url_click_rollups.clicks + EXCLUDED.clicks""";
+
+    private static final String FIND_BUCKETS_SQL = """
+            SELECT bucket_start, clicks FROM url_click_rollups
+            WHERE url_id = ? AND granularity = ? AND bucket_start >= ? AND bucket_start < ?
+            ORDER BY bucket_start""";
+
+    // Served by idx_url_click_rollups_minute; SKIP LOCKED leaves buckets being flushed to the next batch
+    private static final String DELETE_OLD_MINUTES_SQL = """
+            DELETE FROM url_click_rollups WHERE ctid = ANY(ARRAY(
+                SELECT ctid FROM url_click_rollups
+                WHERE granularity = 'MINUTE' AND bucket_start < ?
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED))""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the click deltas to their buckets in a single JDBC batch, creating missing buckets.
+     * Deltas of URLs that no longer exist are dropped. Pass a sorted map to keep lock order stable across nodes.
+     */
+    @Transactional
+    public void addClicks(Map<ClickRollupKey, Long> clickDeltas) {
+        List<Object[]> batchArgs = clickDeltas.entrySet().stream()
+                .map(entry -> new Object[]{
+                        entry.getKey().urlId(),
+                        entry.getKey().granularity().name(),
+                        Timestamp.valueOf(entry.getKey().bucketStart()),
+                        entry.getValue(),
+                        entry.getKey().urlId()})
+                .toList();
+        jdbcTemplate.batchUpdate(ADD_CLICKS_SQL, batchArgs);
+    }
+
+    /**
+     * Buckets starting in {@code [from, to)}, read with a range scan over the primary key.
+     */
+    public List<Bucket> findBuckets(Long urlId, ClickGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(FIND_BUCKETS_SQL,
+                (rs, rowNum) -> new Bucket(rs.getTimestamp("bucket_start").toLocalDateTime(), rs.getLong("clicks")),
+                urlId, granularity.name(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Deletes at most {@code limit} minute buckets starting before {@code cutoff}.
+     *
+     * @return number of deleted buckets
+     */
+    @Transactional
+    public int deleteMinutesBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(DELETE_OLD_MINUTES_SQL, Timestamp.valueOf(cutoff), limit);
+    }
+
+    /**
+     * Deletes every bucket of the URL, served by the primary key prefix.
+     */
+    @Transactional
+    public void deleteByUrlId(Long urlId) {
+        jdbcTemplate.update("DELETE FROM url_click_rollups WHERE url_id = ?", urlId);
+    }
+}
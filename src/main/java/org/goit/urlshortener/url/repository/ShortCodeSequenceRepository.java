@@ -0,0 +1,23 @@
+package org.goit.urlshortener.url.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class ShortCodeSequenceRepository {
+
+    private static final String RESERVE_SQL = "SELECT nextval('seq_short_codes') FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserves {@code count} sequence values in one round trip. Values are unique but not necessarily contiguous.
+     */
+    public List<Long> reserve(int count) {
+        return jdbcTemplate.queryForList(RESERVE_SQL, Long.class, count);
+    }
+}
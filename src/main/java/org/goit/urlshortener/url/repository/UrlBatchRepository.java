@@ -0,0 +1,104 @@
+package org.goit.urlshortener.url.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.goit.urlshortener.url.model.Url;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plain JDBC access for bulk URL creation, where going through the persistence context
+ * would cost one statement per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UrlBatchRepository {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private static final String NEXT_IDS_SQL = "SELECT nextval('seq_urls_id') FROM generate_series(1, ?)";
+    private static final String EXISTING_SHORT_CODES_SQL = "SELECT short_code FROM short_code_registry WHERE short_code = ANY (?)";
+    private static final String INSERT_SQL = """
+            INSERT INTO urls (id, short_code, original_url, created_at, expires_at, click_count, user_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Allocates {@code count} ids from {@code seq_urls_id} in one round trip. Like Hibernate's pooled-lo
+     * optimizer, each sequence value {@code v} reserves the block {@code [v, v + ID_ALLOCATION_SIZE)}.
+     */
+    public List<Long> nextIds(int count) {
+        int blocks = (count + Url.ID_ALLOCATION_SIZE - 1) / Url.ID_ALLOCATION_SIZE;
+        List<Long> ids = new ArrayList<>(count);
+        for (Long blockStart : jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, blocks)) {
+            for (int i = 0; i < Url.ID_ALLOCATION_SIZE && ids.size() < count; i++) {
+                ids.add(blockStart + i);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the subset of {@code shortCodes} already taken, using a single array-bound query
+     * so the statement stays within the driver's bind parameter limit for any batch size.
+     */
+    public Set<String> findExistingShortCodes(Collection<String> shortCodes) {
+        Set<String> existing = new HashSet<>();
+        if (shortCodes.isEmpty()) {
+            return existing;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXISTING_SHORT_CODES_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", shortCodes.toArray()));
+            return statement;
+        }, (RowCallbackHandler) resultSet -> existing.add(resultSet.getString(1)));
+        return existing;
+    }
+
+    /**
+     * Like {@link #insertAll}, but a short code taken in the meantime does not abort the surrounding
+     * transaction: the inserts are rolled back to a savepoint and {@code false} is returned.
+     * Must run inside a transaction.
+     */
+    public boolean tryInsertAll(List<Url> urls) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                insertAll(urls);
+            } catch (DuplicateKeyException e) {
+                connection.rollback(savepoint);
+                return false;
+            }
+            connection.releaseSavepoint(savepoint);
+            return true;
+        }));
+    }
+
+    /**
+     * Inserts URLs with preassigned ids in JDBC batches. With {@code reWriteBatchedInserts}
+     * the driver sends each batch as multi-row INSERT statements.
+     */
+    public void insertAll(List<Url> urls) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, urls, INSERT_BATCH_SIZE, (statement, url) -> {
+            statement.setLong(1, url.getId());
+            statement.setString(2, url.getShortCode());
+            statement.setString(3, url.getOriginalUrl());
+            statement.setTimestamp(4, Timestamp.valueOf(url.getCreatedAt()));
+            statement.setTimestamp(5, url.getExpiresAt() != null ? Timestamp.valueOf(url.getExpiresAt()) : null);
+            statement.setLong(6, url.getClickCount());
+            statement.setLong(7, url.getUser().getId());
+        });
+    }
+}
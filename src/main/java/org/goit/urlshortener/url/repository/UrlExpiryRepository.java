@@ -0,0 +1,42 @@
+package org.goit.urlshortener.url.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class UrlExpiryRepository {
+
+    // SKIP LOCKED leaves rows being updated, and batches claimed by a reaper on another node, to the next run
+    private static final String DELETE_EXPIRED_SQL = """
+            WITH reaped AS (
+                DELETE FROM urls WHERE id IN (
+                    SELECT id FROM urls WHERE expires_at < ?
+                    ORDER BY expires_at
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING id, short_code
+            ), reaped_rollups AS (
+                DELETE FROM url_click_rollups r USING reaped WHERE r.url_id = reaped.id
+            )
+            SELECT short_code FROM reaped""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Deletes at most {@code limit} URLs that expired before {@code cutoff}, together with their click rollups.
+     * Their short codes are released from {@code short_code_registry} by the delete trigger on {@code urls}.
+     *
+     * @return short codes of the deleted URLs
+     */
+    @Transactional
+    public List<String> deleteExpired(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList(DELETE_EXPIRED_SQL, String.class, Timestamp.valueOf(cutoff), limit);
+    }
+}
@@ -0,0 +1,17 @@
+package org.goit.urlshortener.url.repository;
+
+import org.goit.urlshortener.url.model.RedirectTarget;
+
+import java.util.Optional;
+
+/**
+ * Lookups on {@code urls} that read only the columns they need, as a fragment of {@link UrlRepository}.
+ */
+public interface UrlLookupRepository {
+
+    /**
+     * Resolves the code through {@code short_code_registry} and reads the three redirect columns
+     * from a single partition, without building a {@code Url} entity.
+     */
+    Optional<RedirectTarget> findRedirectTarget(String shortCode);
+}
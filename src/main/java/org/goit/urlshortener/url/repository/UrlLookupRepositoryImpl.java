@@ -0,0 +1,29 @@
+package org.goit.urlshortener.url.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.goit.urlshortener.url.model.RedirectTarget;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class UrlLookupRepositoryImpl implements UrlLookupRepository {
+
+    private static final String FIND_REDIRECT_TARGET_SQL = """
+            SELECT u.id, u.original_url, u.expires_at FROM short_code_registry r
+            JOIN urls u ON u.id = r.url_id AND u.created_at = r.created_at
+            WHERE r.short_code = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<RedirectTarget> findRedirectTarget(String shortCode) {
+        return jdbcTemplate.query(FIND_REDIRECT_TARGET_SQL, (rs, rowNum) -> {
+                    Timestamp expiresAt = rs.getTimestamp("expires_at");
+                    return new RedirectTarget(rs.getLong("id"), rs.getString("original_url"),
+                            expiresAt != null ? expiresAt.toLocalDateTime() : null);
+                }, shortCode).stream()
+                .findFirst();
+    }
+}
@@ -0,0 +1,101 @@
+package org.goit.urlshortener.url.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly partitions of {@code urls}, named {@code urls_pYYYYMM}. The {@code urls_legacy} partition
+ * holding rows from before partitioning is never listed here; its rows are removed by the expiry reaper.
+ * Tables of that name that were detached but not dropped yet are listed as {@link Partition#detached()}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UrlPartitionRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("urls_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String CREATE_PARTITION_SQL = "SELECT create_urls_partition(?)";
+    private static final String FIND_PARTITIONS_SQL = """
+            SELECT c.relname, COALESCE(i.inhdetachpending, false) AS detach_pending, i.inhrelid IS NULL AS detached
+            FROM pg_class c
+            LEFT JOIN pg_inherits i ON i.inhrelid = c.oid AND i.inhparent = 'urls'::regclass
+            WHERE c.relkind = 'r' AND c.relname LIKE 'urls\\_p%'
+              AND c.relnamespace = (SELECT relnamespace FROM pg_class WHERE oid = 'urls'::regclass)""";
+
+    public record Partition(String name, YearMonth month, boolean detachPending, boolean detached) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the partition for {@code month} unless it exists.
+     *
+     * @return name of the partition, or {@code null} if the month is covered by {@code urls_legacy}
+     */
+    public String createPartition(YearMonth month) {
+        return jdbcTemplate.queryForObject(CREATE_PARTITION_SQL, String.class, Date.valueOf(month.atDay(1)));
+    }
+
+    public List<Partition> findMonthlyPartitions() {
+        return jdbcTemplate.query(FIND_PARTITIONS_SQL, (rs, rowNum) -> {
+                    Matcher matcher = PARTITION_NAME.matcher(rs.getString("relname"));
+                    if (!matcher.matches()) {
+                        return null;
+                    }
+                    return new Partition(matcher.group(), YearMonth.parse(matcher.group(1), PARTITION_MONTH),
+                            rs.getBoolean("detach_pending"), rs.getBoolean("detached"));
+                }).stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Whether the partition still holds a URL that never expires or expires at or after {@code cutoff}.
+     */
+    public boolean hasLiveUrls(Partition partition, LocalDateTime cutoff) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + partition.name() + " WHERE expires_at IS NULL OR expires_at >= ?)",
+                Boolean.class, Timestamp.valueOf(cutoff)));
+    }
+
+    /**
+     * Releases the short codes and deletes the click rollups of every URL in the partition, which dropping
+     * the partition would leave behind. Call it only once the partition is detached: rows still attached are
+     * live and must keep their codes. It can be repeated if a previous run failed after the detach.
+     */
+    @Transactional
+    public void releaseUrls(Partition partition) {
+        jdbcTemplate.update("DELETE FROM short_code_registry r USING " + partition.name()
+                + " p WHERE r.short_code = p.short_code AND r.url_id = p.id");
+        jdbcTemplate.update("DELETE FROM url_click_rollups r USING " + partition.name() + " p WHERE r.url_id = p.id");
+    }
+
+    /**
+     * Detaches the partition from {@code urls}. {@code DETACH ... CONCURRENTLY} cannot run inside a transaction
+     * and does not block queries on {@code urls}; a detach interrupted on a previous run is finalized instead.
+     */
+    public void detachPartition(Partition partition) {
+        jdbcTemplate.execute("ALTER TABLE urls DETACH PARTITION " + partition.name()
+                + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+    }
+
+    /**
+     * Drops the detached partition, once its URLs are released.
+     */
+    public void dropPartition(Partition partition) {
+        jdbcTemplate.execute("DROP TABLE " + partition.name());
+    }
+}
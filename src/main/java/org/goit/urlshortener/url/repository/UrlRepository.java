@@ -1,28 +1,91 @@
 package org.goit.urlshortener.url.repository;
 
+import jakarta.persistence.QueryHint;
 import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.UrlSummary;
 import org.goit.urlshortener.auth.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface UrlRepository extends JpaRepository<Url, Long> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
-    Page<Url> findByUser(@Param("user") User user, Pageable pageable);
+public interface UrlRepository extends JpaRepository<Url, Long>, UrlLookupRepository {
 
-    Optional<Url> findByShortCode(String shortCode);
+    /**
+     * Rows fetched per round trip by the streaming queries. Postgres only uses a server-side
+     * cursor when this is set and the stream is consumed inside a transaction.
+     */
+    String EXPORT_FETCH_SIZE = "1000";
+
+    String SELECT_SUMMARY = "SELECT new org.goit.urlshortener.url.model.UrlSummary(u.id, u.shortCode, u.originalUrl, u.clickCount) FROM Url u";
+
+    @Query(value = SELECT_SUMMARY + " WHERE u.user = :user",
+            countQuery = "SELECT count(u) FROM Url u WHERE u.user = :user")
+    Page<UrlSummary> findByUser(@Param("user") User user, Pageable pageable);
+
+    /**
+     * Resolves the code through {@code short_code_registry}, which carries the partition key,
+     * so only one partition of {@code urls} is read.
+     */
+    @Query(value = """
+            SELECT u.* FROM short_code_registry r
+            JOIN urls u ON u.id = r.url_id AND u.created_at = r.created_at
+            WHERE r.short_code = :shortCode""", nativeQuery = true)
+    Optional<Url> findByShortCode(@Param("shortCode") String shortCode);
 
     Optional<Url> findByIdAndUser(@Param("id") Long id, @Param("user") User user);
 
-    boolean existsByShortCode(String shortCode);
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM short_code_registry WHERE short_code = :shortCode)", nativeQuery = true)
+    boolean existsByShortCode(@Param("shortCode") String shortCode);
+
+    @Query(value = SELECT_SUMMARY + " WHERE u.user = :user AND (u.expiresAt IS NULL OR u.expiresAt > CURRENT_TIMESTAMP)",
+            countQuery = "SELECT count(u) FROM Url u WHERE u.user = :user AND (u.expiresAt IS NULL OR u.expiresAt > CURRENT_TIMESTAMP)")
+    Page<UrlSummary> findActiveUrlsByUser(@Param("user") User user, Pageable pageable);
+
+    @Query(value = SELECT_SUMMARY + " WHERE u.user = :user AND u.expiresAt <= CURRENT_TIMESTAMP",
+            countQuery = "SELECT count(u) FROM Url u WHERE u.user = :user AND u.expiresAt <= CURRENT_TIMESTAMP")
+    Page<UrlSummary> findExpiredUrlsByUser(@Param("user") User user, Pageable pageable);
+
+    @Query(SELECT_SUMMARY + " WHERE u.user = :user AND u.id < :beforeId ORDER BY u.id DESC")
+    Slice<UrlSummary> findByUserBefore(@Param("user") User user, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(SELECT_SUMMARY + """
+             WHERE u.user = :user AND u.id < :beforeId
+            AND (u.expiresAt IS NULL OR u.expiresAt > CURRENT_TIMESTAMP) ORDER BY u.id DESC""")
+    Slice<UrlSummary> findActiveByUserBefore(@Param("user") User user, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(SELECT_SUMMARY + """
+             WHERE u.user = :user AND u.id < :beforeId
+            AND u.expiresAt <= CURRENT_TIMESTAMP ORDER BY u.id DESC""")
+    Slice<UrlSummary> findExpiredByUserBefore(@Param("user") User user, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM Url u WHERE u.user = :user ORDER BY u.id")
+    Stream<Url> streamByUser(@Param("user") User user);
 
-    @Query("SELECT u FROM Url u WHERE u.user = :user AND (u.expiresAt IS NULL OR u.expiresAt > CURRENT_TIMESTAMP)")
-    Page<Url> findActiveUrlsByUser(@Param("user") User user, Pageable pageable);
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM Url u WHERE u.user = :user AND (u.expiresAt IS NULL OR u.expiresAt > CURRENT_TIMESTAMP) ORDER BY u.id")
+    Stream<Url> streamActiveByUser(@Param("user") User user);
 
-    @Query("SELECT u FROM Url u WHERE u.user = :user AND u.expiresAt <= CURRENT_TIMESTAMP")
-    Page<Url> findExpiredUrlsByUser(@Param("user") User user, Pageable pageable);
-}
\ No newline at end of file
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM Url u WHERE u.user = :user AND u.expiresAt <= CURRENT_TIMESTAMP ORDER BY u.id")
+    Stream<Url> streamExpiredByUser(@Param("user") User user);
+}
@@ -0,0 +1,145 @@
+package org.goit.urlshortener.url.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.goit.urlshortener.url.repository.ClickCountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind aggregation of redirect clicks.
+ * <p>
+ * Clicks are counted in memory per URL id and periodically drained into one batched
+ * {@code UPDATE urls SET click_count = click_count + ?}. At most one flush interval or
+ * {@code url.clicks.max-pending} clicks can be lost if the process dies without a clean shutdown.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "url.clicks.mode", havingValue = "buffered", matchIfMissing = true)
+public class ClickCountBuffer implements ClickCounter {
+
+    private final ClickCountRepository clickCountRepository;
+    private final TaskScheduler taskScheduler;
+    private final long maxPendingClicks;
+
+    private final ConcurrentHashMap<Long, LongAdder> counters = new ConcurrentHashMap<>();
+    private final LongAdder pendingClicks = new LongAdder();
+    private final AtomicBoolean earlyFlushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Counters unlinked on the previous drain; a recorder may still have incremented one of them
+    private List<Map.Entry<Long, LongAdder>> retiredCounters = new ArrayList<>();
+
+    public ClickCountBuffer(ClickCountRepository clickCountRepository,
+                            TaskScheduler taskScheduler,
+                            @Value("${url.clicks.max-pending:10000}") long maxPendingClicks) {
+        this.clickCountRepository = clickCountRepository;
+        this.taskScheduler = taskScheduler;
+        this.maxPendingClicks = maxPendingClicks;
+    }
+
+    @Override
+    public void record(Long urlId) {
+        LongAdder counter = counters.get(urlId);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(urlId, id -> new LongAdder());
+        }
+        counter.increment();
+        pendingClicks.increment();
+
+        if (pendingClicks.sum() >= maxPendingClicks && earlyFlushRequested.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::flush, Instant.now());
+        }
+    }
+
+    public long getPendingClicks() {
+        return pendingClicks.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${url.clicks.flush-interval-ms:5000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLock.lock();
+        try {
+            doFlush();
+            // A second pass picks up increments that landed on counters retired by the first one
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void doFlush() {
+        earlyFlushRequested.set(false);
+        Map<Long, Long> clickDeltas = drain();
+        if (clickDeltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            clickCountRepository.addClickCounts(clickDeltas);
+            log.debug("Flushed click counts for {} URLs", clickDeltas.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush click counts for {} URLs, keeping them for the next flush", clickDeltas.size(), e);
+            clickDeltas.forEach(this::restore);
+        }
+    }
+
+    private Map<Long, Long> drain() {
+        Map<Long, Long> clickDeltas = new TreeMap<>();
+
+        retiredCounters.forEach(entry -> collect(clickDeltas, entry.getKey(), entry.getValue()));
+        retiredCounters = new ArrayList<>();
+
+        counters.forEach((urlId, counter) -> {
+            if (counter.sum() == 0) {
+                // Idle since the last flush: unlink it and re-check it once more on the next drain
+                if (counters.remove(urlId, counter)) {
+                    retiredCounters.add(Map.entry(urlId, counter));
+                }
+            } else {
+                collect(clickDeltas, urlId, counter);
+            }
+        });
+        return clickDeltas;
+    }
+
+    private void collect(Map<Long, Long> clickDeltas, Long urlId, LongAdder counter) {
+        // Subtract exactly what was read, so increments racing with the drain stay in the counter
+        long clicks = counter.sum();
+        if (clicks != 0) {
+            counter.add(-clicks);
+            pendingClicks.add(-clicks);
+            clickDeltas.merge(urlId, clicks, Long::sum);
+        }
+    }
+
+    private void restore(Long urlId, Long clicks) {
+        counters.computeIfAbsent(urlId, id -> new LongAdder()).add(clicks);
+        pendingClicks.add(clicks);
+    }
+}
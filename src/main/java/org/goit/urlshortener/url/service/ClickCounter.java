@@ -0,0 +1,10 @@
+package org.goit.urlshortener.url.service;
+
+/**
+ * Counts redirect clicks into {@code urls.click_count}. Selected with {@code url.clicks.mode}:
+ * {@link ClickCountBuffer} ({@code buffered}, the default) or {@link SynchronousClickCounter} ({@code sync}).
+ */
+public interface ClickCounter {
+
+    void record(Long urlId);
+}
@@ -0,0 +1,162 @@
+package org.goit.urlshortener.url.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.goit.urlshortener.common.concurrent.MpscRingBuffer;
+import org.goit.urlshortener.url.model.ClickEvent;
+import org.goit.urlshortener.url.model.ClickEvent.UserAgentClass;
+import org.goit.urlshortener.url.repository.ClickEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-click analytics written behind the redirect.
+ * <p>
+ * The redirect thread only captures the raw request data into a bounded lock-free ring buffer and never
+ * blocks: when the buffer is full the click event is dropped and counted in {@code url.click_events.dropped}.
+ * Referrer parsing, user agent classification and country lookup happen on the consumer, which appends
+ * the events to {@code click_events} in batches with {@code COPY}. Click counts on {@code urls} are
+ * tracked separately by {@link ClickCounter} and are not affected by dropped events.
+ */
+@Slf4j
+@Component
+public class ClickEventPipeline {
+
+    private static final int MAX_REFERRER_HOST_LENGTH = 255;
+
+    private record RawClick(Long urlId, long timestampMillis, String referrer, String userAgent, String remoteAddress) {
+    }
+
+    private final ClickEventRepository clickEventRepository;
+    private final CountryResolver countryResolver;
+    private final TaskScheduler taskScheduler;
+    private final int batchSize;
+
+    private final MpscRingBuffer<RawClick> buffer;
+    private final Counter droppedEvents;
+    private final Counter failedEvents;
+    private final Counter writtenEvents;
+    private final AtomicBoolean earlyFlushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ClickEventPipeline(ClickEventRepository clickEventRepository,
+                              CountryResolver countryResolver,
+                              TaskScheduler taskScheduler,
+                              MeterRegistry meterRegistry,
+                              @Value("${url.click-events.buffer-size:65536}") int bufferSize,
+                              @Value("${url.click-events.batch-size:5000}") int batchSize) {
+        this.clickEventRepository = clickEventRepository;
+        this.countryResolver = countryResolver;
+        this.taskScheduler = taskScheduler;
+        this.batchSize = batchSize;
+        this.buffer = new MpscRingBuffer<>(bufferSize);
+
+        this.droppedEvents = Counter.builder("url.click_events.dropped")
+                .description("Click events dropped because the buffer was full")
+                .register(meterRegistry);
+        this.failedEvents = Counter.builder("url.click_events.failed")
+                .description("Click events lost because writing their batch failed")
+                .register(meterRegistry);
+        this.writtenEvents = Counter.builder("url.click_events.written")
+                .description("Click events written to click_events")
+                .register(meterRegistry);
+        Gauge.builder("url.click_events.pending", buffer, MpscRingBuffer::size)
+                .description("Click events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void record(Long urlId, String referrer, String userAgent, String remoteAddress) {
+        if (!buffer.offer(new RawClick(urlId, System.currentTimeMillis(), referrer, userAgent, remoteAddress))) {
+            droppedEvents.increment();
+            return;
+        }
+        if (buffer.size() >= batchSize && earlyFlushRequested.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::flush, Instant.now());
+        }
+    }
+
+    public int getPendingEvents() {
+        return buffer.size();
+    }
+
+    @Scheduled(fixedDelayString = "${url.click-events.flush-interval-ms:1000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLock.lock();
+        try {
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void doFlush() {
+        earlyFlushRequested.set(false);
+        List<ClickEvent> batch = new ArrayList<>(Math.min(batchSize, buffer.size()));
+        while (buffer.drain(click -> batch.add(toEvent(click)), batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<ClickEvent> batch) {
+        try {
+            clickEventRepository.copyAll(batch);
+            writtenEvents.increment(batch.size());
+            log.debug("Wrote {} click events", batch.size());
+        } catch (RuntimeException e) {
+            // Analytics are best effort: keeping failed batches around would only fill the buffer
+            failedEvents.increment(batch.size());
+            log.error("Failed to write {} click events, dropping them", batch.size(), e);
+        }
+    }
+
+    private ClickEvent toEvent(RawClick click) {
+        return new ClickEvent(click.urlId(),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(click.timestampMillis()), ZoneId.systemDefault()),
+                referrerHost(click.referrer()),
+                UserAgentClass.of(click.userAgent()),
+                click.remoteAddress() != null ? countryResolver.resolve(click.remoteAddress()) : null);
+    }
+
+    static String referrerHost(String referrer) {
+        if (referrer == null || referrer.isBlank()) {
+            return null;
+        }
+        try {
+            String host = URI.create(referrer.trim()).getHost();
+            if (host == null) {
+                return null;
+            }
+            host = host.toLowerCase();
+            return host.length() > MAX_REFERRER_HOST_LENGTH ? host.substring(0, MAX_REFERRER_HOST_LENGTH) : host;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.goit.urlshortener.url.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.goit.urlshortener.url.model.ClickGranularity;
+import org.goit.urlshortener.url.model.ClickRollupKey;
+import org.goit.urlshortener.url.repository.ClickRollupRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory click buckets behind {@code url_click_rollups}.
+ * <p>
+ * A redirect increments one per-minute counter. On every flush the minute deltas are folded into
+ * minute, hour and day buckets and added to the table with one batched upsert, so the table always
+ * holds complete counts up to the last flush. Like {@link ClickCountBuffer}, at most one flush
+ * interval of clicks is lost if the process dies without a clean shutdown.
+ */
+@Slf4j
+@Component
+public class ClickRollupBuffer {
+
+    private record MinuteKey(Long urlId, long epochMinute) {
+    }
+
+    private final ClickRollupRepository clickRollupRepository;
+
+    private final ConcurrentHashMap<MinuteKey, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Counters unlinked on the previous drain; a recorder may still have incremented one of them
+    private List<Map.Entry<MinuteKey, LongAdder>> retiredCounters = new ArrayList<>();
+
+    public ClickRollupBuffer(ClickRollupRepository clickRollupRepository) {
+        this.clickRollupRepository = clickRollupRepository;
+    }
+
+    public void record(Long urlId) {
+        record(urlId, System.currentTimeMillis());
+    }
+
+    void record(Long urlId, long timestampMillis) {
+        MinuteKey key = new MinuteKey(urlId, TimeUnit.MILLISECONDS.toMinutes(timestampMillis));
+        LongAdder counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${url.click-rollups.flush-interval-ms:10000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLock.lock();
+        try {
+            doFlush();
+            // A second pass picks up increments that landed on counters retired by the first one
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void doFlush() {
+        Map<MinuteKey, Long> minuteDeltas = drain();
+        if (minuteDeltas.isEmpty()) {
+            return;
+        }
+
+        Map<ClickRollupKey, Long> rollupDeltas = new TreeMap<>();
+        minuteDeltas.forEach((key, clicks) -> {
+            LocalDateTime minute = LocalDateTime.ofInstant(
+                    Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(key.epochMinute())), ZoneId.systemDefault());
+            for (ClickGranularity granularity : ClickGranularity.values()) {
+                rollupDeltas.merge(new ClickRollupKey(key.urlId(), granularity, granularity.bucketStart(minute)),
+                        clicks, Long::sum);
+            }
+        });
+
+        try {
+            clickRollupRepository.addClicks(rollupDeltas);
+            log.debug("Flushed {} click rollup buckets", rollupDeltas.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} click rollup buckets, keeping them for the next flush", rollupDeltas.size(), e);
+            minuteDeltas.forEach((key, clicks) -> counters.computeIfAbsent(key, k -> new LongAdder()).add(clicks));
+        }
+    }
+
+    private Map<MinuteKey, Long> drain() {
+        Map<MinuteKey, Long> minuteDeltas = new HashMap<>();
+
+        retiredCounters.forEach(entry -> collect(minuteDeltas, entry.getKey(), entry.getValue()));
+        retiredCounters = new ArrayList<>();
+
+        long currentMinute = TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+        counters.forEach((key, counter) -> {
+            collect(minuteDeltas, key, counter);
+            // Past minutes receive no new clicks: unlink them and re-check them once more on the next drain
+            if (key.epochMinute() < currentMinute && counters.remove(key, counter)) {
+                retiredCounters.add(Map.entry(key, counter));
+            }
+        });
+        return minuteDeltas;
+    }
+
+    private static void collect(Map<MinuteKey, Long> minuteDeltas, MinuteKey key, LongAdder counter) {
+        // Subtract exactly what was read, so increments racing with the drain stay in the counter
+        long clicks = counter.sum();
+        if (clicks != 0) {
+            counter.add(-clicks);
+            minuteDeltas.merge(key, clicks, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.goit.urlshortener.url.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.goit.urlshortener.url.repository.ClickRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes minute buckets older than {@code url.click-rollups.minute-retention-ms}.
+ * <p>
+ * Minute buckets add one row per URL and active minute, so without a retention they soon outgrow every
+ * other table. Hour and day buckets are kept for the lifetime of the URL. Like {@link ExpiredUrlReaper},
+ * every batch is its own short transaction and a run stops after {@code url.click-rollups.prune-max-run-ms}.
+ */
+@Slf4j
+@Component
+public class ClickRollupPruner {
+
+    private final ClickRollupRepository clickRollupRepository;
+    private final long minuteRetentionMillis;
+    private final int batchSize;
+    private final long maxRunMillis;
+
+    public ClickRollupPruner(ClickRollupRepository clickRollupRepository,
+                             @Value("${url.click-rollups.minute-retention-ms:604800000}") long minuteRetentionMillis,
+                             @Value("${url.click-rollups.prune-batch-size:10000}") int batchSize,
+                             @Value("${url.click-rollups.prune-max-run-ms:30000}") long maxRunMillis) {
+        this.clickRollupRepository = clickRollupRepository;
+        this.minuteRetentionMillis = minuteRetentionMillis;
+        this.batchSize = batchSize;
+        this.maxRunMillis = maxRunMillis;
+    }
+
+    @Scheduled(initialDelayString = "${url.click-rollups.prune-interval-ms:3600000}",
+            fixedDelayString = "${url.click-rollups.prune-interval-ms:3600000}")
+    public void prune() {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(maxRunMillis);
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(minuteRetentionMillis));
+
+        long pruned = 0;
+        try {
+            int deleted;
+            do {
+                deleted = clickRollupRepository.deleteMinutesBefore(cutoff, batchSize);
+                pruned += deleted;
+            } while (deleted == batchSize && System.nanoTime() < deadlineNanos);
+        } catch (RuntimeException e) {
+            log.error("Failed to prune minute click rollups, {} deleted before the failure", pruned, e);
+        }
+
+        if (pruned > 0) {
+            log.info("Deleted {} minute click rollups older than {} in {} ms", pruned, cutoff,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.goit.urlshortener.url.service;
+
+/**
+ * Maps a client IP address to an ISO 3166-1 alpha-2 country code for click analytics.
+ */
+public interface CountryResolver {
+
+    /**
+     * @return the country code, or {@code null} when it is unknown
+     */
+    String resolve(String ipAddress);
+}
@@ -0,0 +1,111 @@
+package org.goit.urlshortener.url.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.goit.urlshortener.url.repository.UrlExpiryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes URLs whose {@code expires_at} lies more than the grace period in the past.
+ * <p>
+ * Every batch is its own short transaction over at most {@code url.expiry.batch-size} rows, so row locks
+ * are held briefly and concurrent reapers skip each other's rows. Batches are paced to stay under
+ * {@code url.expiry.max-rows-per-second}, and a run stops after {@code url.expiry.max-run-ms}; the
+ * backlog is picked up by the next run. Rows reaped per run are published as {@code url.expiry.reaped}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "url.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class ExpiredUrlReaper {
+
+    private final UrlExpiryRepository urlExpiryRepository;
+    private final RedirectCache redirectCache;
+    private final long gracePeriodMillis;
+    private final int batchSize;
+    private final double maxRowsPerSecond;
+    private final long maxRunMillis;
+
+    private final DistributionSummary reapedPerRun;
+
+    public ExpiredUrlReaper(UrlExpiryRepository urlExpiryRepository,
+                            RedirectCache redirectCache,
+                            MeterRegistry meterRegistry,
+                            @Value("${url.expiry.grace-period-ms:86400000}") long gracePeriodMillis,
+                            @Value("${url.expiry.batch-size:1000}") int batchSize,
+                            @Value("${url.expiry.max-rows-per-second:5000}") double maxRowsPerSecond,
+                            @Value("${url.expiry.max-run-ms:30000}") long maxRunMillis) {
+        this.urlExpiryRepository = urlExpiryRepository;
+        this.redirectCache = redirectCache;
+        this.gracePeriodMillis = gracePeriodMillis;
+        this.batchSize = batchSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.maxRunMillis = maxRunMillis;
+
+        this.reapedPerRun = DistributionSummary.builder("url.expiry.reaped")
+                .description("Expired URLs deleted per reaper run")
+                .baseUnit("urls")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${url.expiry.interval-ms:60000}", fixedDelayString = "${url.expiry.interval-ms:60000}")
+    public void reap() {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(maxRunMillis);
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(gracePeriodMillis));
+
+        long reaped = 0;
+        try {
+            while (true) {
+                long batchStartNanos = System.nanoTime();
+                List<String> shortCodes = urlExpiryRepository.deleteExpired(cutoff, batchSize);
+                redirectCache.evictAll(shortCodes);
+                reaped += shortCodes.size();
+
+                if (shortCodes.size() < batchSize || System.nanoTime() >= deadlineNanos
+                        || !pace(batchStartNanos, shortCodes.size())) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to reap expired URLs, {} deleted before the failure", reaped, e);
+        } finally {
+            reapedPerRun.record(reaped);
+        }
+
+        if (reaped > 0) {
+            log.info("Deleted {} URLs expired before {} in {} ms", reaped, cutoff,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+
+    /**
+     * Sleeps until the batch has taken as long as the rate limit requires.
+     *
+     * @return false if the thread was interrupted and the run should stop
+     */
+    private boolean pace(long batchStartNanos, int rows) {
+        if (maxRowsPerSecond <= 0) {
+            return true;
+        }
+        long minBatchNanos = (long) (rows * TimeUnit.SECONDS.toNanos(1) / maxRowsPerSecond);
+        long remainingNanos = minBatchNanos - (System.nanoTime() - batchStartNanos);
+        if (remainingNanos <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(remainingNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
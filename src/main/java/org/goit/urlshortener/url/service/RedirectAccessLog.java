@@ -0,0 +1,91 @@
+package org.goit.urlshortener.url.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.goit.urlshortener.common.concurrent.MpscRingBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sampled access log for redirects.
+ * <p>
+ * Request threads only roll the sampling dice and put an entry into a fixed-size ring buffer; formatting
+ * and appender I/O happen on the scheduler thread that drains it. When the buffer is full entries are
+ * dropped and counted in {@code url.access_log.dropped}, so a slow appender never slows redirects down.
+ * Lines are written as {@code key=value} pairs to the {@value #LOGGER_NAME} logger.
+ */
+@Component
+public class RedirectAccessLog {
+
+    static final String LOGGER_NAME = "org.goit.urlshortener.access.redirect";
+    private static final Logger accessLog = LoggerFactory.getLogger(LOGGER_NAME);
+
+    record Entry(long timestampMillis, String shortCode, int status, long latencyNanos) {
+    }
+
+    private final double sampleRate;
+    private final MpscRingBuffer<Entry> buffer;
+    private final Counter droppedEntries;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public RedirectAccessLog(MeterRegistry meterRegistry,
+                             @Value("${url.access-log.sample-rate:0.01}") double sampleRate,
+                             @Value("${url.access-log.buffer-size:8192}") int bufferSize) {
+        this.sampleRate = sampleRate;
+        this.buffer = new MpscRingBuffer<>(bufferSize);
+        this.droppedEntries = Counter.builder("url.access_log.dropped")
+                .description("Sampled redirect access log entries dropped because the buffer was full")
+                .register(meterRegistry);
+    }
+
+    public void record(String shortCode, int status, long startNanos) {
+        if (sampleRate <= 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        Entry entry = new Entry(System.currentTimeMillis(), shortCode, status, System.nanoTime() - startNanos);
+        if (!buffer.offer(entry)) {
+            droppedEntries.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${url.access-log.flush-interval-ms:1000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            buffer.drain(this::write, Integer.MAX_VALUE);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLock.lock();
+        try {
+            buffer.drain(this::write, Integer.MAX_VALUE);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    int getPendingEntries() {
+        return buffer.size();
+    }
+
+    private void write(Entry entry) {
+        accessLog.info("ts={} code={} status={} latency_us={}",
+                Instant.ofEpochMilli(entry.timestampMillis()), entry.shortCode(), entry.status(),
+                TimeUnit.NANOSECONDS.toMicros(entry.latencyNanos()));
+    }
+}
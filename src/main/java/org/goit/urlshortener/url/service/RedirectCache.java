@@ -0,0 +1,84 @@
+package org.goit.urlshortener.url.service;
+
+import org.goit.urlshortener.url.model.RedirectTarget;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Objects;
+
+import static org.goit.urlshortener.common.config.CacheConfig.REDIRECT_MISSES;
+import static org.goit.urlshortener.common.config.CacheConfig.REDIRECT_TARGETS;
+
+/**
+ * Resolution cache for the redirect path: short code to {@link RedirectTarget},
+ * plus a short-lived negative cache for codes that do not exist.
+ */
+@Component
+public class RedirectCache {
+
+    private final Cache targets;
+    private final Cache misses;
+
+    public RedirectCache(CacheManager cacheManager) {
+        this.targets = Objects.requireNonNull(cacheManager.getCache(REDIRECT_TARGETS));
+        this.misses = Objects.requireNonNull(cacheManager.getCache(REDIRECT_MISSES));
+    }
+
+    public RedirectTarget get(String shortCode) {
+        return targets.get(shortCode, RedirectTarget.class);
+    }
+
+    public void put(String shortCode, RedirectTarget target) {
+        targets.put(shortCode, target);
+    }
+
+    public boolean isKnownMissing(String shortCode) {
+        return misses.get(shortCode) != null;
+    }
+
+    public void putMissing(String shortCode) {
+        misses.put(shortCode, Boolean.TRUE);
+    }
+
+    /**
+     * Evicts the code right away and, inside a transaction, once more after commit,
+     * so a lookup racing with the change cannot re-cache the old row.
+     * Other nodes drop their local copy through the cache invalidation bus, which sends both evictions
+     * of a code as one message once the transaction commits.
+     */
+    public void evict(String shortCode) {
+        doEvict(shortCode);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(shortCode);
+                }
+            });
+        }
+    }
+
+    /**
+     * Same as {@link #evict(String)} for many codes, with a single after-commit callback.
+     */
+    public void evictAll(Collection<String> shortCodes) {
+        shortCodes.forEach(this::doEvict);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    shortCodes.forEach(RedirectCache.this::doEvict);
+                }
+            });
+        }
+    }
+
+    private void doEvict(String shortCode) {
+        targets.evict(shortCode);
+        misses.evict(shortCode);
+    }
+}
@@ -0,0 +1,25 @@
+package org.goit.urlshortener.url.service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import lombok.RequiredArgsConstructor;
+import org.goit.urlshortener.url.repository.UrlRepository;
+import org.springframework.stereotype.Component;
+
+import static org.goit.urlshortener.common.config.CacheConfig.CACHE_LOADER_SUFFIX;
+import static org.goit.urlshortener.common.config.CacheConfig.REDIRECT_TARGETS;
+
+/**
+ * Reloads redirect targets in the background when {@code refresh-after-write} is set for the cache.
+ * A missing code yields {@code null}, which drops the entry.
+ */
+@Component(REDIRECT_TARGETS + CACHE_LOADER_SUFFIX)
+@RequiredArgsConstructor
+public class RedirectTargetLoader implements CacheLoader<Object, Object> {
+
+    private final UrlRepository urlRepository;
+
+    @Override
+    public Object load(Object shortCode) {
+        return urlRepository.findRedirectTarget((String) shortCode).orElse(null);
+    }
+}
@@ -0,0 +1,100 @@
+package org.goit.urlshortener.url.service;
+
+import java.math.BigInteger;
+
+import static org.goit.urlshortener.url.service.ShortCodeGenerator.CHARACTERS;
+
+/**
+ * Bijective, non-sequential mapping of sequence values to short codes.
+ * <p>
+ * Every code starts with {@value #MARKER}, followed by a body in the generator alphabet. Values fill the
+ * 7-character keyspace first, then 8 characters and so on. Inside a keyspace a value is scrambled by an
+ * affine step, a digit reversal and a second affine step, each of them a bijection. The marker is not in
+ * the generator alphabet and custom codes may not start with it (see {@link #isReserved}), so a code
+ * issued from the sequence is never taken by a random or custom code first.
+ * <p>
+ * The constants must never change once codes have been issued, or uniqueness is lost.
+ */
+final class ShortCodeEncoder {
+
+    static final char MARKER = '_';
+    static final int MIN_LENGTH = 7;
+    static final int MAX_LENGTH = 10;
+
+    private static final int BASE = CHARACTERS.length();
+    // Primes, hence coprime with every power of the alphabet size
+    private static final long FIRST_MULTIPLIER = 2_147_483_647L;
+    private static final long SECOND_MULTIPLIER = 1_000_000_007L;
+    private static final long FIRST_OFFSET = 48_271L;
+    private static final long SECOND_OFFSET = 16_807L;
+
+    private ShortCodeEncoder() {
+    }
+
+    static String encode(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Sequence value must not be negative: " + value);
+        }
+
+        int length = MIN_LENGTH;
+        long keyspace = keyspace(length);
+        long index = value;
+        while (index >= keyspace) {
+            index -= keyspace;
+            length++;
+            if (length > MAX_LENGTH) {
+                throw new IllegalStateException("Short code keyspace exhausted for value " + value);
+            }
+            keyspace = keyspace(length);
+        }
+
+        long scrambled = affine(index, FIRST_MULTIPLIER, FIRST_OFFSET, keyspace);
+        scrambled = reverseDigits(scrambled, length - 1);
+        scrambled = affine(scrambled, SECOND_MULTIPLIER, SECOND_OFFSET, keyspace);
+        return MARKER + toCode(scrambled, length - 1);
+    }
+
+    /**
+     * Whether {@code code} lies in the encoder's namespace, that is starts with {@value #MARKER}.
+     */
+    static boolean isReserved(String code) {
+        return !code.isEmpty() && code.charAt(0) == MARKER;
+    }
+
+    /**
+     * Number of codes of {@code length} characters, marker included.
+     */
+    static long keyspace(int length) {
+        long keyspace = 1;
+        for (int i = 1; i < length; i++) {
+            keyspace *= BASE;
+        }
+        return keyspace;
+    }
+
+    private static long affine(long value, long multiplier, long offset, long modulus) {
+        return BigInteger.valueOf(value)
+                .multiply(BigInteger.valueOf(multiplier))
+                .add(BigInteger.valueOf(offset))
+                .mod(BigInteger.valueOf(modulus))
+                .longValue();
+    }
+
+    private static long reverseDigits(long value, int length) {
+        long reversed = 0;
+        for (int i = 0; i < length; i++) {
+            reversed = reversed * BASE + value % BASE;
+            value /= BASE;
+        }
+        return reversed;
+    }
+
+    private static String toCode(long value, int length) {
+        char[] code = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            code[i] = CHARACTERS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return new String(code);
+    }
+}
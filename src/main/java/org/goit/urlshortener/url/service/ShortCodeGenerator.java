@@ -1,48 +1,142 @@
 package org.goit.urlshortener.url.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.goit.urlshortener.common.exception.ShortUrlException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 import static org.goit.urlshortener.common.exception.ExceptionMessages.SHORT_CODE_ALREADY_EXISTS;
 
+/**
+ * Random short code generator that grows the code length as the keyspace fills up.
+ * <p>
+ * The share of generations whose first candidate already exists approximates the occupancy of the
+ * keyspace at the active length. Once it crosses {@code url.short-code.random.growth-threshold} within a
+ * sample window, or a single generation keeps colliding at one length, every later code is one character
+ * longer. The length never shrinks while the application runs. Codes only use {@link #CHARACTERS}, so
+ * at any length they stay clear of the sequence pool, whose codes start with {@link ShortCodeEncoder#MARKER}.
+ */
 @Slf4j
 @Component
 public class ShortCodeGenerator {
 
-    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYabcdefghilkmnopqrstuvwxyz0123456789";
-    private static final int SHORT_CODE_SIZE = 6;
+    static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYabcdefghilkmnopqrstuvwxyz0123456789";
     private static final int MAX_ATTEMPTS = 100;
+    private static final int ATTEMPTS_PER_LENGTH = 10;
+    private static final int SAMPLE_WINDOW = 1000;
     private final SecureRandom random = new SecureRandom();
 
+    private final int maxLength;
+    private final double growthThreshold;
+    private final AtomicInteger activeLength;
+    private final DistributionSummary collisionSummary;
+
+    private final Object sampleLock = new Object();
+    private int sampledGenerations;
+    private int sampledCollisions;
+
+    public ShortCodeGenerator(MeterRegistry meterRegistry,
+                              @Value("${url.short-code.random.min-length:6}") int minLength,
+                              @Value("${url.short-code.random.max-length:10}") int maxLength,
+                              @Value("${url.short-code.random.growth-threshold:0.1}") double growthThreshold) {
+        if (minLength < 1 || maxLength < minLength) {
+            throw new IllegalArgumentException("Invalid short code length range: " + minLength + ".." + maxLength);
+        }
+        this.maxLength = maxLength;
+        this.growthThreshold = growthThreshold;
+        this.activeLength = new AtomicInteger(minLength);
+
+        Gauge.builder("url.short_code.length", activeLength, AtomicInteger::get)
+                .description("Length of newly generated random short codes")
+                .register(meterRegistry);
+        this.collisionSummary = DistributionSummary.builder("url.short_code.collisions")
+                .description("Existing short codes hit before a unique one was found")
+                .serviceLevelObjectives(1, 2, 3, 5, 10, 20, 50)
+                .register(meterRegistry);
+    }
+
     public String generateUniqueShortCode(Predicate<String> existsChecker) {
         String shortCode;
+        int length = activeLength.get();
         int attempts = 0;
+        int attemptsAtLength = 0;
         boolean exists;
 
         do {
             if (attempts >= MAX_ATTEMPTS) {
                 log.error("Failed to generate a unique shortCode after {} attempts", MAX_ATTEMPTS);
+                collisionSummary.record(attempts);
                 throw new ShortUrlException(SHORT_CODE_ALREADY_EXISTS.getMessage());
             }
+            if (attemptsAtLength >= ATTEMPTS_PER_LENGTH && length < maxLength) {
+                length = grow(length);
+                attemptsAtLength = 0;
+            }
 
-            shortCode = generateRandomCode();
+            shortCode = generateRandomCode(length);
             attempts++;
+            attemptsAtLength++;
             exists = existsChecker.test(shortCode);
 
-            log.debug("Generated shortCode: {} (attempt {}), exists: {}", shortCode, attempts, exists);
+            if (exists) {
+                log.debug("Generated shortCode {} already exists (attempt {})", shortCode, attempts);
+            }
         } while (exists);
 
-        log.info("Unique shortCode generated after {} attempts: {}", attempts, shortCode);
+        collisionSummary.record(attempts - 1);
+        sample(attempts > 1);
+        log.debug("Unique shortCode generated after {} attempts: {}", attempts, shortCode);
         return shortCode;
     }
 
-    private String generateRandomCode() {
-        StringBuilder sb = new StringBuilder(SHORT_CODE_SIZE);
-        for (int i = 0; i < SHORT_CODE_SIZE; i++) {
+    public int getActiveLength() {
+        return activeLength.get();
+    }
+
+    private void sample(boolean collided) {
+        boolean shouldGrow;
+        int length = activeLength.get();
+        synchronized (sampleLock) {
+            sampledGenerations++;
+            if (collided) {
+                sampledCollisions++;
+            }
+            if (sampledGenerations < SAMPLE_WINDOW) {
+                return;
+            }
+            shouldGrow = (double) sampledCollisions / sampledGenerations >= growthThreshold;
+            sampledGenerations = 0;
+            sampledCollisions = 0;
+        }
+        if (shouldGrow && length < maxLength) {
+            grow(length);
+        }
+    }
+
+    /**
+     * Raises the active length to {@code current + 1} unless another thread already did.
+     * Returns the length the caller should continue with.
+     */
+    private int grow(int current) {
+        int next = current + 1;
+        int previous = activeLength.getAndAccumulate(next, Math::max);
+        if (previous < next) {
+            log.warn("Short code keyspace is filling up, growing generated codes from {} to {} characters",
+                    previous, next);
+        }
+        return Math.max(previous, next);
+    }
+
+    private String generateRandomCode(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
             sb.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
         }
         return sb.toString();
@@ -0,0 +1,101 @@
+package org.goit.urlshortener.url.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.goit.urlshortener.url.repository.ShortCodeSequenceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free pool of pre-allocated short codes backed by the {@code seq_short_codes} sequence.
+ * <p>
+ * Every code comes from a distinct sequence value and starts with a marker that neither random nor
+ * custom codes can start with, so no existence check is needed. Blocks are reserved in the background
+ * once the pool runs low; a caller finding it empty reserves one itself. Codes still in the pool on
+ * shutdown are simply never used.
+ */
+@Slf4j
+@Component
+public class ShortCodePool {
+
+    private final ShortCodeSequenceRepository sequenceRepository;
+    private final TaskScheduler taskScheduler;
+    private final int blockSize;
+    private final int refillThreshold;
+
+    private final ConcurrentLinkedQueue<String> codes = new ConcurrentLinkedQueue<>();
+    // ConcurrentLinkedQueue.size() is O(n), so the pool size is tracked separately
+    private final AtomicInteger available = new AtomicInteger();
+    private final AtomicBoolean refillScheduled = new AtomicBoolean();
+
+    public ShortCodePool(ShortCodeSequenceRepository sequenceRepository,
+                         TaskScheduler taskScheduler,
+                         @Value("${url.short-code.pool.block-size:1000}") int blockSize,
+                         @Value("${url.short-code.pool.refill-threshold:200}") int refillThreshold) {
+        this.sequenceRepository = sequenceRepository;
+        this.taskScheduler = taskScheduler;
+        this.blockSize = blockSize;
+        this.refillThreshold = refillThreshold;
+    }
+
+    public String nextCode() {
+        String code;
+        while ((code = codes.poll()) == null) {
+            reserveBlock();
+        }
+
+        if (available.decrementAndGet() < refillThreshold && refillScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::refill, Instant.now());
+        }
+        return code;
+    }
+
+    /**
+     * Takes {@code count} codes at once: whatever the pool holds, plus one reservation for the remainder.
+     */
+    public List<String> nextCodes(int count) {
+        List<String> result = new ArrayList<>(count);
+        String code;
+        while (result.size() < count && (code = codes.poll()) != null) {
+            available.decrementAndGet();
+            result.add(code);
+        }
+        if (result.size() < count) {
+            sequenceRepository.reserve(count - result.size())
+                    .forEach(value -> result.add(ShortCodeEncoder.encode(value)));
+        }
+
+        if (available.get() < refillThreshold && refillScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::refill, Instant.now());
+        }
+        return result;
+    }
+
+    public int getAvailable() {
+        return available.get();
+    }
+
+    private void refill() {
+        try {
+            reserveBlock();
+        } catch (RuntimeException e) {
+            log.error("Failed to refill the short code pool, callers will reserve blocks themselves", e);
+        } finally {
+            refillScheduled.set(false);
+        }
+    }
+
+    private void reserveBlock() {
+        List<Long> values = sequenceRepository.reserve(blockSize);
+        values.forEach(value -> codes.offer(ShortCodeEncoder.encode(value)));
+        available.addAndGet(values.size());
+        log.debug("Reserved {} short codes, {} available", values.size(), available.get());
+    }
+}
@@ -0,0 +1,15 @@
+package org.goit.urlshortener.url.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Placeholder until a GeoIP database is wired in: every address resolves to an unknown country.
+ */
+@Component
+public class UnknownCountryResolver implements CountryResolver {
+
+    @Override
+    public String resolve(String ipAddress) {
+        return null;
+    }
+}
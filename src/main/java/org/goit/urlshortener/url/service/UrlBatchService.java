@@ -0,0 +1,189 @@
+package org.goit.urlshortener.url.service;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.goit.urlshortener.auth.model.User;
+import org.goit.urlshortener.common.exception.ShortUrlException;
+import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.dto.UrlBatchItemResponse;
+import org.goit.urlshortener.url.model.dto.UrlCreateRequest;
+import org.goit.urlshortener.url.repository.UrlBatchRepository;
+import org.goit.urlshortener.url.repository.UrlRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.goit.urlshortener.common.exception.ExceptionMessages.BATCH_TOO_LARGE;
+import static org.goit.urlshortener.common.exception.ExceptionMessages.SHORT_CODE_ALREADY_EXISTS;
+
+/**
+ * Bulk counterpart of {@link UrlService#createUrl}. Each item succeeds or fails on its own, including
+ * a custom code taken concurrently; the rows that pass are written in one transaction with a fixed
+ * number of round trips.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UrlBatchService {
+
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    private final UrlBatchRepository urlBatchRepository;
+    private final UrlRepository urlRepository;
+    private final UrlValidationService urlValidator;
+    private final ShortCodeGenerator shortCodeGenerator;
+    private final ShortCodePool shortCodePool;
+    private final RedirectCache redirectCache;
+
+    @Value("${url.expiry.default-days:1}")
+    private int defaultExpiryDays;
+
+    @Value("${url.short-code.strategy:sequence}")
+    private String shortCodeStrategy = "sequence";
+
+    @Value("${url.batch.max-size:50000}")
+    private int maxBatchSize = 50_000;
+
+    @Transactional(rollbackFor = Exception.class)
+    public List<UrlBatchItemResponse> createUrls(List<UrlCreateRequest> requests, @NotNull User currentUser) {
+        log.info("Creating {} URLs in a batch for user with id={}", requests.size(), currentUser.getId());
+        if (requests.size() > maxBatchSize) {
+            throw new ShortUrlException(BATCH_TOO_LARGE.getMessage());
+        }
+
+        UrlBatchItemResponse[] results = new UrlBatchItemResponse[requests.size()];
+
+        // Sequential on purpose: parsing one URL takes microseconds, so even a full batch validates in well
+        // under the time of its insert, and a parallel stream would compete with every other request for
+        // the common fork-join pool
+        for (int i = 0; i < requests.size(); i++) {
+            UrlCreateRequest request = requests.get(i);
+            try {
+                urlValidator.validateUrl(request != null ? request.originalUrl() : null);
+                if (request.shortCode() != null && !request.shortCode().isEmpty()) {
+                    urlValidator.validateShortCode(request.shortCode());
+                }
+            } catch (ShortUrlException e) {
+                results[i] = UrlBatchItemResponse.failed(i, request != null ? request.originalUrl() : null, e.getMessage());
+            }
+        }
+
+        List<Integer> customItems = new ArrayList<>();
+        List<Integer> generatedItems = new ArrayList<>();
+        Set<String> customCodes = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            String shortCode = requests.get(i).shortCode();
+            if (shortCode == null || shortCode.isEmpty()) {
+                generatedItems.add(i);
+            } else if (customCodes.add(shortCode)) {
+                customItems.add(i);
+            } else {
+                // The same custom code twice in one batch: the first occurrence wins
+                results[i] = UrlBatchItemResponse.failed(i, requests.get(i).originalUrl(),
+                        SHORT_CODE_ALREADY_EXISTS.getMessage());
+            }
+        }
+
+        Set<String> takenCodes = urlBatchRepository.findExistingShortCodes(customCodes);
+        List<Url> urls = new ArrayList<>(customItems.size() + generatedItems.size());
+        List<Integer> urlItems = new ArrayList<>(customItems.size() + generatedItems.size());
+        LocalDateTime createdAt = LocalDateTime.now();
+        LocalDateTime expiresAt = createdAt.plusDays(defaultExpiryDays);
+
+        for (int i : customItems) {
+            UrlCreateRequest request = requests.get(i);
+            if (takenCodes.contains(request.shortCode())) {
+                results[i] = UrlBatchItemResponse.failed(i, request.originalUrl(), SHORT_CODE_ALREADY_EXISTS.getMessage());
+            } else {
+                urls.add(newUrl(request.originalUrl(), request.shortCode(), createdAt, expiresAt, currentUser));
+                urlItems.add(i);
+            }
+        }
+
+        Iterator<String> generatedCodes = generateShortCodes(generatedItems.size(), customCodes).iterator();
+        for (int i : generatedItems) {
+            urls.add(newUrl(requests.get(i).originalUrl(), generatedCodes.next(), createdAt, expiresAt, currentUser));
+            urlItems.add(i);
+        }
+
+        if (!urls.isEmpty()) {
+            Iterator<Long> ids = urlBatchRepository.nextIds(urls.size()).iterator();
+            urls.forEach(url -> url.setId(ids.next()));
+            insertUrls(urls, urlItems, results);
+            redirectCache.evictAll(urls.stream().map(Url::getShortCode).toList());
+        }
+
+        for (int n = 0; n < urls.size(); n++) {
+            int i = urlItems.get(n);
+            results[i] = UrlBatchItemResponse.created(i, urls.get(n).getOriginalUrl(), urls.get(n).getShortCode());
+        }
+
+        log.info("Batch for user with id={} finished: {} created, {} failed",
+                currentUser.getId(), urls.size(), requests.size() - urls.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Inserts the URLs, failing only the items whose short code another transaction took since the
+     * existence check. Those are removed from {@code urls} and {@code urlItems}.
+     */
+    private void insertUrls(List<Url> urls, List<Integer> urlItems, UrlBatchItemResponse[] results) {
+        for (int attempt = 1; !urls.isEmpty() && !urlBatchRepository.tryInsertAll(urls); attempt++) {
+            if (attempt == MAX_INSERT_ATTEMPTS) {
+                throw new ShortUrlException(SHORT_CODE_ALREADY_EXISTS.getMessage());
+            }
+            Set<String> takenCodes = urlBatchRepository.findExistingShortCodes(
+                    urls.stream().map(Url::getShortCode).toList());
+            log.debug("Short codes taken while the batch was prepared: {}", takenCodes);
+            for (int n = urls.size() - 1; n >= 0; n--) {
+                if (takenCodes.contains(urls.get(n).getShortCode())) {
+                    int i = urlItems.remove(n);
+                    results[i] = UrlBatchItemResponse.failed(i, urls.remove(n).getOriginalUrl(),
+                            SHORT_CODE_ALREADY_EXISTS.getMessage());
+                }
+            }
+        }
+    }
+
+    private List<String> generateShortCodes(int count, Set<String> customCodes) {
+        if (count == 0) {
+            return List.of();
+        }
+        if ("random".equalsIgnoreCase(shortCodeStrategy)) {
+            Set<String> batchCodes = new HashSet<>(customCodes);
+            List<String> codes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String code = shortCodeGenerator.generateUniqueShortCode(
+                        candidate -> batchCodes.contains(candidate) || urlRepository.existsByShortCode(candidate));
+                batchCodes.add(code);
+                codes.add(code);
+            }
+            return codes;
+        }
+        return shortCodePool.nextCodes(count);
+    }
+
+    private Url newUrl(String originalUrl, String shortCode, LocalDateTime createdAt, LocalDateTime expiresAt,
+                       User user) {
+        return Url.builder()
+                .originalUrl(originalUrl)
+                .shortCode(shortCode)
+                .createdAt(createdAt)
+                .expiresAt(expiresAt)
+                .clickCount(0L)
+                .user(user)
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package org.goit.urlshortener.url.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.goit.urlshortener.auth.model.User;
+import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.dto.UrlExportRow;
+import org.goit.urlshortener.url.repository.UrlRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Streams all of a user's URLs without loading them into memory: rows come from a server-side cursor
+ * and are detached as soon as they are written, so memory use does not depend on the row count.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UrlExportService {
+
+    private static final String CSV_HEADER = "short_code,original_url,created_at,expires_at,click_count\n";
+
+    private final UrlRepository urlRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String fileExtension;
+
+        public static Format from(String format) {
+            return switch (format.toLowerCase()) {
+                case "ndjson" -> NDJSON;
+                case "csv" -> CSV;
+                default -> throw new IllegalArgumentException("Invalid format: " + format);
+            };
+        }
+    }
+
+    /**
+     * Fails fast on an unknown status, before the response is committed.
+     */
+    public void validateStatus(@NotNull String status) {
+        switch (status.toLowerCase()) {
+            case "active", "expired", "all" -> {
+            }
+            default -> throw new IllegalArgumentException("Invalid status: " + status);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportUrls(@NotNull User user, @NotNull String status, @NotNull Format format,
+                           OutputStream outputStream) throws IOException {
+        log.info("Exporting URLs for user id={}, status={}, format={}", user.getId(), status, format);
+
+        OutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+        ObjectWriter rowWriter = objectMapper.writerFor(UrlExportRow.class);
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+
+        long exported = 0;
+        try (Stream<Url> urls = streamByStatus(user, status)) {
+            for (Url url : (Iterable<Url>) urls::iterator) {
+                UrlExportRow row = UrlExportRow.from(url);
+                if (format == Format.CSV) {
+                    out.write(toCsvLine(row).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    out.write(rowWriter.writeValueAsBytes(row));
+                    out.write('\n');
+                }
+                // Keep the persistence context from growing with every row read
+                entityManager.detach(url);
+                exported++;
+            }
+        }
+        out.flush();
+        log.info("Exported {} URLs for user id={}", exported, user.getId());
+    }
+
+    private Stream<Url> streamByStatus(User user, String status) {
+        return switch (status.toLowerCase()) {
+            case "active" -> urlRepository.streamActiveByUser(user);
+            case "expired" -> urlRepository.streamExpiredByUser(user);
+            case "all" -> urlRepository.streamByUser(user);
+            default -> throw new IllegalArgumentException("Invalid status: " + status);
+        };
+    }
+
+    private static String toCsvLine(UrlExportRow row) {
+        return csvField(row.shortCode()) + ',' +
+                csvField(row.originalUrl()) + ',' +
+                csvField(row.createdAt()) + ',' +
+                csvField(row.expiresAt()) + ',' +
+                csvField(row.clickCount()) + '\n';
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
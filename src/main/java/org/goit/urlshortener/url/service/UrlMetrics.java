@@ -0,0 +1,69 @@
+package org.goit.urlshortener.url.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for the redirect and create paths. Every tag combination is registered up front,
+ * so recording is a map lookup instead of a meter registry lookup.
+ */
+@Component
+public class UrlMetrics {
+
+    public enum RedirectOutcome {
+        /** Served from the redirect cache. */
+        HIT,
+        /** Loaded from the database and cached. */
+        MISS,
+        EXPIRED,
+        NOT_FOUND
+    }
+
+    public enum CodeSource {
+        CUSTOM,
+        GENERATED
+    }
+
+    private final Map<RedirectOutcome, Timer> redirectTimers = new EnumMap<>(RedirectOutcome.class);
+    private final Map<CodeSource, Timer> createdTimers = new EnumMap<>(CodeSource.class);
+    private final Map<CodeSource, Timer> rejectedTimers = new EnumMap<>(CodeSource.class);
+
+    public UrlMetrics(MeterRegistry meterRegistry) {
+        for (RedirectOutcome outcome : RedirectOutcome.values()) {
+            redirectTimers.put(outcome, Timer.builder("url.redirect")
+                    .description("Short code resolution for redirects")
+                    .tag("outcome", tagValue(outcome))
+                    .register(meterRegistry));
+        }
+        for (CodeSource source : CodeSource.values()) {
+            createdTimers.put(source, createTimer(meterRegistry, source, "created"));
+            rejectedTimers.put(source, createTimer(meterRegistry, source, "rejected"));
+        }
+    }
+
+    public void recordRedirect(RedirectOutcome outcome, long startNanos) {
+        redirectTimers.get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCreate(CodeSource source, boolean created, long startNanos) {
+        (created ? createdTimers : rejectedTimers).get(source)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer createTimer(MeterRegistry meterRegistry, CodeSource source, String outcome) {
+        return Timer.builder("url.create")
+                .description("Single URL creation, including short code generation")
+                .tag("code", tagValue(source))
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase();
+    }
+}
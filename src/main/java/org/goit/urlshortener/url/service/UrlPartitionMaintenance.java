@@ -0,0 +1,96 @@
+package org.goit.urlshortener.url.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.goit.urlshortener.url.repository.UrlPartitionRepository;
+import org.goit.urlshortener.url.repository.UrlPartitionRepository.Partition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps monthly partitions of {@code urls} ahead of time and drops a partition once every URL in it
+ * expired more than the grace period ago, which removes a whole month without row-by-row deletes.
+ * URLs in partitions that cannot be dropped yet are left to {@link ExpiredUrlReaper}.
+ * <p>
+ * Partitions are always created: {@code urls} has no default partition, so inserts fail once the
+ * months created in advance have passed. {@code url.partitions.drop-expired=false} only stops the drops.
+ */
+@Slf4j
+@Component
+public class UrlPartitionMaintenance {
+
+    private final UrlPartitionRepository urlPartitionRepository;
+    private final int monthsAhead;
+    private final long gracePeriodMillis;
+    private final boolean dropExpired;
+
+    private final Counter droppedPartitions;
+
+    public UrlPartitionMaintenance(UrlPartitionRepository urlPartitionRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${url.partitions.months-ahead:3}") int monthsAhead,
+                                   @Value("${url.expiry.grace-period-ms:86400000}") long gracePeriodMillis,
+                                   @Value("${url.partitions.drop-expired:true}") boolean dropExpired) {
+        this.urlPartitionRepository = urlPartitionRepository;
+        this.monthsAhead = monthsAhead;
+        this.gracePeriodMillis = gracePeriodMillis;
+        this.dropExpired = dropExpired;
+
+        this.droppedPartitions = Counter.builder("url.partitions.dropped")
+                .description("Partitions of urls dropped because all their URLs expired")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${url.partitions.maintenance-interval-ms:3600000}")
+    public void maintain() {
+        createUpcomingPartitions();
+        if (dropExpired) {
+            dropExpiredPartitions();
+        }
+    }
+
+    private void createUpcomingPartitions() {
+        YearMonth currentMonth = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            try {
+                String partition = urlPartitionRepository.createPartition(month);
+                log.debug("Partition of urls for {}: {}", month, partition != null ? partition : "urls_legacy");
+            } catch (RuntimeException e) {
+                log.error("Failed to create the partition of urls for {}", month, e);
+            }
+        }
+    }
+
+    private void dropExpiredPartitions() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(gracePeriodMillis));
+        for (Partition partition : urlPartitionRepository.findMonthlyPartitions()) {
+            // URLs created after the cutoff cannot have expired before it
+            if (partition.month().plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+            try {
+                if (!partition.detached()) {
+                    if (!partition.detachPending() && urlPartitionRepository.hasLiveUrls(partition, cutoff)) {
+                        continue;
+                    }
+                    urlPartitionRepository.detachPartition(partition);
+                }
+                // Codes are released only once the rows are out of urls, so a failed detach keeps them taken.
+                // A release or drop that fails is retried on the next run, which lists the table as detached.
+                urlPartitionRepository.releaseUrls(partition);
+                urlPartitionRepository.dropPartition(partition);
+                droppedPartitions.increment();
+                log.info("Dropped partition {}, all its URLs expired before {}", partition.name(), cutoff);
+            } catch (RuntimeException e) {
+                log.error("Failed to drop partition {}", partition.name(), e);
+            }
+        }
+    }
+}
@@ -5,14 +5,22 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.goit.urlshortener.common.exception.ExceptionMessages;
 import org.goit.urlshortener.common.exception.ShortUrlException;
+import org.goit.urlshortener.url.model.RedirectTarget;
 import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.UrlSummary;
 import org.goit.urlshortener.auth.model.User;
 import org.goit.urlshortener.url.model.dto.UrlCreateRequest;
+import org.goit.urlshortener.url.repository.ClickRollupRepository;
 import org.goit.urlshortener.url.repository.UrlRepository;
+import org.goit.urlshortener.url.service.UrlMetrics.CodeSource;
+import org.goit.urlshortener.url.service.UrlMetrics.RedirectOutcome;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -28,30 +36,53 @@ public class UrlService {
     private final UrlRepository urlRepository;
     private final UrlValidationService urlValidator;
     private final ShortCodeGenerator shortCodeGenerator;
+    private final ShortCodePool shortCodePool;
+    private final ClickCounter clickCounter;
+    private final ClickRollupBuffer clickRollupBuffer;
+    private final ClickRollupRepository clickRollupRepository;
+    private final RedirectCache redirectCache;
+    private final UrlMetrics urlMetrics;
 
     @Value("${url.expiry.default-days:1}")
     private int defaultExpiryDays;
 
-    public Page<Url> findUrlsByUser(@NotNull User user, Pageable pageable) {
-        log.info("Fetching URLs for user with id={}, pageable={}", user.getId(), pageable);
+    @Value("${url.short-code.strategy:sequence}")
+    private String shortCodeStrategy = "sequence";
+
+    public Page<UrlSummary> findUrlsByUser(@NotNull User user, Pageable pageable) {
+        log.debug("Fetching URLs for user with id={}, pageable={}", user.getId(), pageable);
         return urlRepository.findByUser(user, pageable);
     }
 
     @Transactional(rollbackFor = Exception.class)
     public Url createUrl(UrlCreateRequest request, @NotNull User currentUser) {
-        log.info("Creating a new URL for user with id={}", currentUser.getId());
+        long start = System.nanoTime();
+        boolean custom = request.shortCode() != null && !request.shortCode().isEmpty();
+        boolean created = false;
+        try {
+            Url savedUrl = doCreateUrl(request, currentUser, custom);
+            created = true;
+            return savedUrl;
+        } finally {
+            urlMetrics.recordCreate(custom ? CodeSource.CUSTOM : CodeSource.GENERATED, created, start);
+        }
+    }
+
+    private Url doCreateUrl(UrlCreateRequest request, User currentUser, boolean custom) {
+        log.debug("Creating a new URL for user with id={}", currentUser.getId());
         urlValidator.validateUrl(request.originalUrl());
         log.debug("URL validation passed: {}", request.originalUrl());
 
         String shortCode;
-        if (request.shortCode() != null && !request.shortCode().isEmpty()) {
+        if (custom) {
             log.debug("Using custom shortCode: {}", request.shortCode());
+            urlValidator.validateShortCode(request.shortCode());
             if (urlRepository.existsByShortCode(request.shortCode())) {
                 throw new ShortUrlException(SHORT_CODE_ALREADY_EXISTS.getMessage());
             }
             shortCode = request.shortCode();
         } else {
-            shortCode = shortCodeGenerator.generateUniqueShortCode(urlRepository::existsByShortCode);
+            shortCode = generateShortCode();
             log.debug("Generated unique shortCode: {}", shortCode);
         }
 
@@ -68,11 +99,20 @@ public class UrlService {
                 .build();
 
         Url savedUrl = urlRepository.save(newUrl);
+        redirectCache.evict(savedUrl.getShortCode());
         log.info("URL saved successfully: id={}, shortCode={}, for user with id={}",
                 savedUrl.getId(), savedUrl.getShortCode(), currentUser.getId());
         return savedUrl;
     }
 
+    private String generateShortCode() {
+        if ("random".equalsIgnoreCase(shortCodeStrategy)) {
+            return shortCodeGenerator.generateUniqueShortCode(urlRepository::existsByShortCode);
+        }
+        // Pool codes are distinct and carry a marker that random and custom codes cannot start with
+        return shortCodePool.nextCode();
+    }
+
     @Transactional(rollbackFor = Exception.class)
     public void deleteUrl(Long urlId, @NotNull User currentUser) {
         log.info("Request to delete URL with id={} by user with id={}", urlId, currentUser.getId());
@@ -81,22 +121,25 @@ public class UrlService {
                 .orElseThrow(() -> new ShortUrlException(URL_NOT_FOUND_OR_UNAUTHORIZED.getMessage()));
 
         urlRepository.delete(url);
+        // url_click_rollups has no foreign key to the partitioned urls table
+        clickRollupRepository.deleteByUrlId(urlId);
+        redirectCache.evict(url.getShortCode());
         log.info("URL with id={} was deleted by user with id={}", urlId, currentUser.getId());
     }
 
     public Url findByShortCode(String shortCode) {
-        log.info("Fetching URL by shortCode={}", shortCode);
+        log.debug("Fetching URL by shortCode={}", shortCode);
 
         return urlRepository.findByShortCode(shortCode)
                 .orElseThrow(() -> {
-                    log.warn("URL not found for shortCode={}", shortCode);
+                    log.debug("URL not found for shortCode={}", shortCode);
                     return new ShortUrlException(URL_NOT_FOUND_OR_UNAUTHORIZED.getMessage());
                 });
     }
 
     @Transactional(readOnly = true)
     public Url findByIdAndUser(Long urlId, @NotNull User user) {
-        log.info("Fetching URL with id={} for user with id={}", urlId, user.getId());
+        log.debug("Fetching URL with id={} for user with id={}", urlId, user.getId());
 
         return urlRepository.findByIdAndUser(urlId, user)
                 .orElseThrow(() -> new ShortUrlException(URL_NOT_FOUND_OR_UNAUTHORIZED.getMessage()));
@@ -105,28 +148,68 @@ public class UrlService {
     public Url getValidUrl(String shortCode) {
         Url url = urlRepository.findByShortCode(shortCode)
                 .orElseThrow(() -> {
-                    log.warn("URL not found or shortCode is invalid: {}", shortCode);
+                    log.debug("URL not found or shortCode is invalid: {}", shortCode);
                     return new ShortUrlException(URL_NOT_FOUND.getMessage());
                 });
 
         if (url.getExpiresAt() != null && url.getExpiresAt().isBefore(LocalDateTime.now())) {
-            log.warn("URL with shortCode={} has expired", shortCode);
+            log.debug("URL with shortCode={} has expired", shortCode);
             throw new ShortUrlException(URL_EXPIRED.getMessage());
         }
 
         return url;
     }
 
-    @Transactional
-    public void incrementClickCount(Url url) {
-        log.info("Request to increment clickCount for URL with shortCode={}", url.getShortCode());
-        url.setClickCount(url.getClickCount() + 1);
-        Url updatedUrl = urlRepository.save(url);
-        log.info("ClickCount for URL with shortCode={} incremented to {}", url.getShortCode(), updatedUrl.getClickCount());
+    /**
+     * Runs without a transaction: cache hits never take a pooled connection, and a miss
+     * reads through a single auto-commit query. That query always goes to the primary, so a
+     * lagging read replica cannot put a stale or not yet replicated row back into the caches.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RedirectTarget getRedirectTarget(String shortCode) {
+        long start = System.nanoTime();
+        RedirectOutcome outcome = RedirectOutcome.HIT;
+        RedirectTarget target = redirectCache.get(shortCode);
+
+        if (target == null) {
+            if (redirectCache.isKnownMissing(shortCode)) {
+                urlMetrics.recordRedirect(RedirectOutcome.NOT_FOUND, start);
+                throw new ShortUrlException(URL_NOT_FOUND.getMessage());
+            }
+
+            target = urlRepository.findRedirectTarget(shortCode).orElse(null);
+            if (target == null) {
+                redirectCache.putMissing(shortCode);
+                urlMetrics.recordRedirect(RedirectOutcome.NOT_FOUND, start);
+                throw new ShortUrlException(URL_NOT_FOUND.getMessage());
+            }
+
+            redirectCache.put(shortCode, target);
+            outcome = RedirectOutcome.MISS;
+        }
+
+        // Expiry is checked on every hit, cached entries may outlive expiresAt
+        if (target.isExpiredAt(LocalDateTime.now())) {
+            urlMetrics.recordRedirect(RedirectOutcome.EXPIRED, start);
+            throw new ShortUrlException(URL_EXPIRED.getMessage());
+        }
+
+        urlMetrics.recordRedirect(outcome, start);
+        return target;
     }
 
-    public Page<Url> listUrlsByStatus(@NotNull User user, @NotNull String status, @NotNull Pageable pageable) {
-        log.info("Listing URLs for user id={}, status={}, pageable={}", user.getId(), status, pageable);
+    /**
+     * Runs outside the class-level read-only transaction, so a synchronous {@link ClickCounter}
+     * writes through its own read-write transaction on the primary.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void incrementClickCount(Long urlId) {
+        clickCounter.record(urlId);
+        clickRollupBuffer.record(urlId);
+    }
+
+    public Page<UrlSummary> listUrlsByStatus(@NotNull User user, @NotNull String status, @NotNull Pageable pageable) {
+        log.debug("Listing URLs for user id={}, status={}, pageable={}", user.getId(), status, pageable);
 
         return switch (status.toLowerCase()) {
             case "active" -> urlRepository.findActiveUrlsByUser(user, pageable);
@@ -136,6 +219,23 @@ public class UrlService {
         };
     }
 
+    /**
+     * Keyset variant of {@link #listUrlsByStatus}: newest first, continuing after {@code afterId}
+     * (or from the newest URL when it is {@code null}). No COUNT query is run.
+     */
+    public Slice<UrlSummary> listUrlsByStatusAfter(@NotNull User user, @NotNull String status, Long afterId, int size) {
+        log.debug("Listing URLs for user id={}, status={}, after id={}, size={}", user.getId(), status, afterId, size);
+
+        Long beforeId = afterId != null ? afterId : Long.MAX_VALUE;
+        Pageable pageable = PageRequest.ofSize(size);
+        return switch (status.toLowerCase()) {
+            case "active" -> urlRepository.findActiveByUserBefore(user, beforeId, pageable);
+            case "expired" -> urlRepository.findExpiredByUserBefore(user, beforeId, pageable);
+            case "all" -> urlRepository.findByUserBefore(user, beforeId, pageable);
+            default -> throw new IllegalArgumentException("Invalid status: " + status);
+        };
+    }
+
     @Transactional(rollbackFor = Exception.class)
     public Url updateUrl(Long id, Url url, @NotNull User currentUser) {
         log.info("Request to update URL with id={} by user with id={}", id, currentUser.getId());
@@ -144,16 +244,20 @@ public class UrlService {
         Url existingUrl = urlRepository.findByIdAndUser(id, currentUser)
                 .orElseThrow(() -> new ShortUrlException(ExceptionMessages.URL_NOT_FOUND_OR_UNAUTHORIZED.getMessage()));
 
-        // Check if short code already exists (and belongs to a different URL)
-        if (!existingUrl.getShortCode().equals(url.getShortCode()) &&
-                urlRepository.existsByShortCode(url.getShortCode())) {
-            throw new ShortUrlException(ExceptionMessages.SHORT_CODE_ALREADY_EXISTS.getMessage());
+        // A new short code must be outside the generated range and not belong to a different URL
+        if (!existingUrl.getShortCode().equals(url.getShortCode())) {
+            urlValidator.validateShortCode(url.getShortCode());
+            if (urlRepository.existsByShortCode(url.getShortCode())) {
+                throw new ShortUrlException(ExceptionMessages.SHORT_CODE_ALREADY_EXISTS.getMessage());
+            }
         }
 
         // Validate the new original URL format
         urlValidator.validateUrl(url.getOriginalUrl());
 
-        // Update and save the URL
+        // Update and save the URL, dropping cached redirects for both the old and the new code
+        redirectCache.evict(existingUrl.getShortCode());
+        redirectCache.evict(url.getShortCode());
         existingUrl.setOriginalUrl(url.getOriginalUrl());
         existingUrl.setShortCode(url.getShortCode());
         Url updatedUrl = urlRepository.save(existingUrl);
@@ -0,0 +1,61 @@
+package org.goit.urlshortener.url.service;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.goit.urlshortener.auth.model.User;
+import org.goit.urlshortener.common.exception.ShortUrlException;
+import org.goit.urlshortener.url.model.ClickGranularity;
+import org.goit.urlshortener.url.model.dto.UrlClickStatsResponse;
+import org.goit.urlshortener.url.model.dto.UrlClickStatsResponse.Bucket;
+import org.goit.urlshortener.url.repository.ClickRollupRepository;
+import org.goit.urlshortener.url.repository.UrlRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.goit.urlshortener.common.exception.ExceptionMessages.URL_NOT_FOUND_OR_UNAUTHORIZED;
+
+/**
+ * Click statistics served from {@code url_click_rollups}: the cost of a request depends on the number
+ * of buckets in the range, not on the number of clicks. Counts lag by at most one rollup flush interval.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UrlStatsService {
+
+    private final UrlRepository urlRepository;
+    private final ClickRollupRepository clickRollupRepository;
+
+    @Value("${url.click-rollups.max-buckets:10000}")
+    private long maxBuckets = 10_000;
+
+    @Transactional(readOnly = true)
+    public UrlClickStatsResponse getClickStats(Long urlId, @NotNull User user, @NotNull String granularity,
+                                               LocalDateTime from, LocalDateTime to) {
+        log.debug("Fetching click stats for URL id={}, user id={}, granularity={}, from={}, to={}",
+                urlId, user.getId(), granularity, from, to);
+
+        ClickGranularity bucketSize = ClickGranularity.from(granularity);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = bucketSize.bucketStart(from != null ? from : end.minus(bucketSize.getDefaultWindow()));
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Invalid range: from must be before to");
+        }
+        if (bucketSize.getUnit().between(start, end) > maxBuckets) {
+            throw new IllegalArgumentException("Invalid range: more than " + maxBuckets + " buckets requested");
+        }
+
+        // Same ownership check as UrlService.findByIdAndUser
+        urlRepository.findByIdAndUser(urlId, user)
+                .orElseThrow(() -> new ShortUrlException(URL_NOT_FOUND_OR_UNAUTHORIZED.getMessage()));
+
+        List<Bucket> buckets = clickRollupRepository.findBuckets(urlId, bucketSize, start, end);
+        long totalClicks = buckets.stream().mapToLong(Bucket::clicks).sum();
+        return new UrlClickStatsResponse(urlId, bucketSize.name().toLowerCase(), start, end, totalClicks, buckets);
+    }
+}
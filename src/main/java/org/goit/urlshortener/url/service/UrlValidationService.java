@@ -6,6 +6,8 @@ import org.goit.urlshortener.common.exception.ShortUrlException;
 import org.springframework.stereotype.Component;
 
 import static org.goit.urlshortener.common.exception.ExceptionMessages.INVALID_ORIGINAL_URL_DATA;
+import static org.goit.urlshortener.common.exception.ExceptionMessages.INVALID_SHORT_CODE;
+import static org.goit.urlshortener.common.exception.ExceptionMessages.SHORT_CODE_TOO_LONG;
 
 @Slf4j
 @Component
@@ -13,20 +15,37 @@ public class UrlValidationService {
 
     private static final String[] SCHEMES = {"http", "https"};
     private static final UrlValidator validator = new UrlValidator(SCHEMES);
+    // Length of urls.short_code
+    private static final int MAX_SHORT_CODE_LENGTH = 10;
 
     void validateUrl(String url) {
         if (url == null || url.isBlank()) {
-            log.warn("Validation failed: URL is null or blank");
+            log.debug("Validation failed: URL is null or blank");
             throw new ShortUrlException(INVALID_ORIGINAL_URL_DATA.getMessage());
         }
 
         if (!validator.isValid(url)) {
-            log.warn("Validation failed: Invalid URL format: {}", url);
+            log.debug("Validation failed: Invalid URL format: {}", url);
             throw new ShortUrlException(INVALID_ORIGINAL_URL_DATA.getMessage());
         }
 
         log.debug("URL validation passed: {}", url);
     }
+
+    /**
+     * Rejects custom codes that do not fit {@code urls.short_code} or that start with the sequence pool's
+     * marker, see {@link ShortCodeEncoder#isReserved}.
+     */
+    void validateShortCode(String shortCode) {
+        if (shortCode.length() > MAX_SHORT_CODE_LENGTH) {
+            log.debug("Validation failed: short code {} is longer than {} characters", shortCode, MAX_SHORT_CODE_LENGTH);
+            throw new ShortUrlException(SHORT_CODE_TOO_LONG.getMessage());
+        }
+        if (ShortCodeEncoder.isReserved(shortCode)) {
+            log.debug("Validation failed: short code {} is reserved for generated codes", shortCode);
+            throw new ShortUrlException(INVALID_SHORT_CODE.getMessage());
+        }
+    }
 }
 
 
@@ -0,0 +1,3 @@
+-- Minute buckets are pruned after url.click-rollups.minute-retention-ms; the primary key leads with url_id
+CREATE INDEX IF NOT EXISTS idx_url_click_rollups_minute
+    ON url_click_rollups (bucket_start) WHERE granularity = 'MINUTE';
@@ -0,0 +1,4 @@
+-- Source of guaranteed-unique short codes, values are mapped to codes by ShortCodeEncoder
+CREATE SEQUENCE IF NOT EXISTS seq_short_codes
+    START WITH 1
+    INCREMENT BY 1;
@@ -0,0 +1,5 @@
+-- Hibernate allocates ids in blocks with the pooled-lo optimizer: every nextval reserves
+-- [value, value + 49], so the increment must match allocationSize on the entities
+ALTER SEQUENCE seq_users_id INCREMENT BY 50;
+
+ALTER SEQUENCE seq_urls_id INCREMENT BY 50;
@@ -0,0 +1,5 @@
+-- Keyset pagination seeks on (user_id, id), so deep pages read only the rows they return
+CREATE INDEX IF NOT EXISTS idx_urls_user_id_id ON urls (user_id, id);
+
+-- Every lookup by user_id alone is served by the leading column of the new index
+DROP INDEX IF EXISTS idx_urls_user_id;
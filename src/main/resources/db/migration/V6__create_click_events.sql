@@ -0,0 +1,12 @@
+-- Append-only log of individual redirects, written in bulk with COPY.
+-- No primary key or foreign key: rows are never updated, and events of deleted URLs are kept for analytics
+CREATE TABLE IF NOT EXISTS click_events (
+    url_id BIGINT NOT NULL,
+    clicked_at TIMESTAMP NOT NULL,
+    referrer_host VARCHAR(255),
+    user_agent_class VARCHAR(16) NOT NULL,
+    country CHAR(2)
+);
+
+-- Rows arrive in time order, so a BRIN index covers time range scans at a fraction of a B-tree's write cost
+CREATE INDEX IF NOT EXISTS idx_click_events_clicked_at ON click_events USING BRIN (clicked_at);
@@ -0,0 +1,8 @@
+-- Click counts per URL and time bucket, incremented in place so reads never touch raw click events
+CREATE TABLE IF NOT EXISTS url_click_rollups (
+    url_id BIGINT NOT NULL,
+    granularity VARCHAR(6) NOT NULL CHECK (granularity IN ('MINUTE', 'HOUR', 'DAY')),
+    bucket_start TIMESTAMP NOT NULL,
+    clicks BIGINT NOT NULL,
+    CONSTRAINT pk_url_click_rollups PRIMARY KEY (url_id, granularity, bucket_start)
+);
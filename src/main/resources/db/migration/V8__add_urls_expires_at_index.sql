@@ -0,0 +1,2 @@
+-- The expired URL reaper picks its batches in expires_at order; URLs that never expire are left out of the index
+CREATE INDEX IF NOT EXISTS idx_urls_expires_at ON urls (expires_at) WHERE expires_at IS NOT NULL;
@@ -0,0 +1,98 @@
+-- urls becomes a table range-partitioned by month of created_at. The existing table is attached as the
+-- partition for everything up to the end of the current month, so no rows are copied. Attaching builds
+-- the new primary key and expires_at index on it and the registry below is filled from it: on a large
+-- table, run this migration in a maintenance window.
+
+ALTER TABLE urls RENAME TO urls_legacy;
+ALTER TABLE urls_legacy RENAME CONSTRAINT pk_urls_id TO pk_urls_legacy_id;
+ALTER TABLE urls_legacy RENAME CONSTRAINT fk_urls_user_id TO fk_urls_legacy_user_id;
+ALTER INDEX idx_urls_user_id_id RENAME TO idx_urls_legacy_user_id_id;
+DROP INDEX IF EXISTS idx_urls_expires_at;
+
+-- The partition key is part of the primary key and cannot be null
+UPDATE urls_legacy SET created_at = LOCALTIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE urls_legacy ALTER COLUMN created_at SET NOT NULL;
+
+CREATE TABLE urls (
+    id BIGINT NOT NULL DEFAULT nextval('seq_urls_id'),
+    short_code VARCHAR(10) NOT NULL,
+    original_url TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP,
+    click_count BIGINT DEFAULT 0,
+    user_id BIGINT,
+    CONSTRAINT pk_urls_id PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_urls_user_id FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE SET NULL
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_urls_user_id_id ON urls (user_id, id);
+
+-- Not partial: dropping a partition checks it for URLs that never expire
+CREATE INDEX idx_urls_expires_at ON urls (expires_at);
+
+-- A unique index on a partitioned table must contain the partition key, so short codes are kept unique
+-- here. Lookups by short code go through this table and then read a single partition by (id, created_at).
+CREATE TABLE short_code_registry (
+    short_code VARCHAR(10) NOT NULL,
+    url_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_short_code_registry PRIMARY KEY (short_code)
+);
+
+INSERT INTO short_code_registry (short_code, url_id, created_at)
+SELECT short_code, id, created_at FROM urls_legacy;
+
+CREATE OR REPLACE FUNCTION sync_short_code_registry() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM short_code_registry WHERE short_code = OLD.short_code;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO short_code_registry (short_code, url_id, created_at)
+        VALUES (NEW.short_code, NEW.id, NEW.created_at);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_urls_register_short_code
+    AFTER INSERT OR DELETE ON urls
+    FOR EACH ROW EXECUTE FUNCTION sync_short_code_registry();
+
+CREATE TRIGGER trg_urls_update_short_code
+    AFTER UPDATE OF short_code ON urls
+    FOR EACH ROW WHEN (OLD.short_code IS DISTINCT FROM NEW.short_code)
+    EXECUTE FUNCTION sync_short_code_registry();
+
+-- Creates the partition for the month containing month_start, named urls_pYYYYMM, and returns its name.
+-- Returns NULL when another partition, such as urls_legacy, already covers the month.
+-- Called by UrlPartitionMaintenance to keep partitions ahead of time.
+CREATE OR REPLACE FUNCTION create_urls_partition(month_start DATE) RETURNS TEXT AS $$
+DECLARE
+    lower_bound TIMESTAMP := date_trunc('month', month_start);
+    partition_name TEXT := 'urls_p' || to_char(lower_bound, 'YYYYMM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF urls FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, lower_bound, lower_bound + INTERVAL '1 month');
+    RETURN partition_name;
+EXCEPTION
+    WHEN invalid_object_definition THEN
+        RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    legacy_upper_bound TIMESTAMP := date_trunc('month', LOCALTIMESTAMP) + INTERVAL '1 month';
+BEGIN
+    EXECUTE format('ALTER TABLE urls ATTACH PARTITION urls_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+                   legacy_upper_bound);
+    FOR i IN 0..2 LOOP
+        PERFORM create_urls_partition((legacy_upper_bound + make_interval(months => i))::DATE);
+    END LOOP;
+END;
+$$;
+
+-- Superseded by the (id, created_at) key and the registry
+ALTER TABLE urls_legacy DROP CONSTRAINT pk_urls_legacy_id;
+ALTER TABLE urls_legacy DROP CONSTRAINT IF EXISTS urls_short_url_key;
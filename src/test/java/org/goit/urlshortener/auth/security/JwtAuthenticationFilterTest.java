@@ -1,5 +1,7 @@
 package org.goit.urlshortener.auth.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,6 +21,9 @@ import org.springframework.security.core.userdetails.User;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import static org.mockito.Mockito.*;
 
@@ -81,8 +86,9 @@ class JwtAuthenticationFilterTest {
 
         // Mock JWT service behavior
         String userEmail = "test@example.com";
-        when(jwtService.extractUserName("validToken")).thenReturn(userEmail);
-        when(jwtService.isTokenValid(eq("validToken"), any(UserDetails.class))).thenReturn(true);
+        Claims claims = Jwts.claims().subject(userEmail).build();
+        when(jwtService.parseClaims("validToken")).thenReturn(claims);
+        when(jwtService.isTokenValid(eq(claims), any(UserDetails.class))).thenReturn(true);
 
         // Mock UserDetailsService behavior
         UserDetails userDetails = new User(userEmail, "password", Collections.emptyList());
@@ -103,8 +109,9 @@ class JwtAuthenticationFilterTest {
         when(request.getHeader("Authorization")).thenReturn("Bearer invalidToken");
 
         // Mock JWT service behavior
-        when(jwtService.extractUserName("invalidToken")).thenReturn("test@example.com");
-        when(jwtService.isTokenValid(eq("invalidToken"), any(UserDetails.class))).thenReturn(false);
+        Claims claims = Jwts.claims().subject("test@example.com").build();
+        when(jwtService.parseClaims("invalidToken")).thenReturn(claims);
+        when(jwtService.isTokenValid(eq(claims), any(UserDetails.class))).thenReturn(false);
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -113,4 +120,25 @@ class JwtAuthenticationFilterTest {
         verify(filterChain).doFilter(request, response);
         assert SecurityContextHolder.getContext().getAuthentication() == null;
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should build the principal from the token without loading the user")
+    void shouldAuthenticateFromTokenClaimsWithoutUserLookup() throws ServletException, IOException {
+        when(request.getHeader("Authorization")).thenReturn("Bearer statelessToken");
+
+        Claims claims = Jwts.claims().subject("test@example.com").add(JwtService.USER_ID_CLAIM, 7L).build();
+        org.goit.urlshortener.auth.model.User principal = org.goit.urlshortener.auth.model.User.builder()
+                .id(7L)
+                .email("test@example.com")
+                .build();
+        when(jwtService.parseClaims("statelessToken")).thenReturn(claims);
+        when(jwtService.extractPrincipal(claims)).thenReturn(Optional.of(principal));
+        when(jwtService.isTokenValid(claims, principal)).thenReturn(true);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(userDetailsService);
+        assertSame(principal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+}
@@ -69,4 +69,24 @@ class CustomUserDetailsServiceTest {
         assertEquals("User not found", exception.getMessage(), "Exception message should match");
         verify(userRepository, times(1)).findByEmail(username);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnDetachedCopyWithoutUrls() {
+        // Arrange
+        User user = User.builder()
+                .id(5L)
+                .email("test@example.com")
+                .password("password")
+                .urls(new java.util.ArrayList<>())
+                .build();
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        // Act
+        User principal = (User) customUserDetailsService.loadUserByUsername("test@example.com");
+
+        // Assert
+        assertNotSame(user, principal, "The cached principal should not be the managed entity");
+        assertEquals(5L, principal.getId(), "Ids should match");
+        assertNull(principal.getUrls(), "The cached principal should not reference the URLs collection");
+    }
+}
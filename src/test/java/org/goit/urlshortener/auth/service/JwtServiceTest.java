@@ -1,7 +1,11 @@
 package org.goit.urlshortener.auth.service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,18 +25,15 @@ import static org.junit.jupiter.api.Assertions.*;
 class JwtServiceTest {
 
     private JwtService jwtService;
+    private SimpleMeterRegistry meterRegistry;
 
-    @BeforeEach
-    void setUp() throws NoSuchFieldException, IllegalAccessException {
-        jwtService = new JwtService();
-
-        var jwtSecretKeyField = JwtService.class.getDeclaredField("jwtSecretKey");
-        jwtSecretKeyField.setAccessible(true);
-        jwtSecretKeyField.set(jwtService, "ThisIsASecretKeyAndItIsSoSecureAndLongEnoughToUseItAsAKeyBecauseItContains32CharactersOrMore");
+    private static final String SECRET_KEY =
+            "ThisIsASecretKeyAndItIsSoSecureAndLongEnoughToUseItAsAKeyBecauseItContains32CharactersOrMore";
 
-        var jwtExpirationField = JwtService.class.getDeclaredField("jwtExpirationMs");
-        jwtExpirationField.setAccessible(true);
-        jwtExpirationField.set(jwtService, 3600000L);
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtService = new JwtService(meterRegistry, SECRET_KEY, 3600000L, 100);
     }
 
     @Test
@@ -53,13 +54,11 @@ class JwtServiceTest {
 
     @Test
     @DisplayName("Test token expiration")
-    void testTokenExpiration() throws InterruptedException, NoSuchFieldException, IllegalAccessException {
+    void testTokenExpiration() throws InterruptedException {
 
         UserDetails userDetails = Mockito.mock(User.class);
         Mockito.when(userDetails.getUsername()).thenReturn("testUser");
-        var jwtExpirationMsField = JwtService.class.getDeclaredField("jwtExpirationMs");
-        jwtExpirationMsField.setAccessible(true);
-        jwtExpirationMsField.set(jwtService, 1000L);
+        jwtService = new JwtService(meterRegistry, SECRET_KEY, 1000L, 100);
 
         String token = jwtService.generateToken(userDetails);
 
@@ -75,10 +74,7 @@ class JwtServiceTest {
     @Test
     @DisplayName("Test extract all claims")
     void testExtractAllClaims() {
-        SecretKey secretKey = Keys.hmacShaKeyFor(
-                "ThisIsASecretKeyAndItIsSoSecureAndLongEnoughToUseItAsAKeyBecauseItContains32CharactersOrMore"
-                        .getBytes(StandardCharsets.UTF_8)
-        );
+        SecretKey secretKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
 
         String token = Jwts.builder()
                 .subject("testUser")
@@ -89,4 +85,93 @@ class JwtServiceTest {
 
         assertEquals("testUser", jwtService.extractUserName(token), "Extracted username should match");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test token is verified once and then served from the claims cache")
+    void testClaimsAreCached() {
+        UserDetails userDetails = Mockito.mock(User.class);
+        Mockito.when(userDetails.getUsername()).thenReturn("testUser");
+        String token = jwtService.generateToken(userDetails);
+
+        Claims first = jwtService.parseClaims(token);
+        assertTrue(jwtService.isTokenValid(token, userDetails));
+        assertEquals("testUser", jwtService.extractUserName(token));
+
+        assertSame(first, jwtService.parseClaims(token), "Cached claims should be reused");
+        assertEquals(1, jwtService.getVerifiedClaims().stats().missCount(), "Token should be parsed only once");
+    }
+
+    @Test
+    @DisplayName("Test cached claims expire together with the token")
+    void testCachedClaimsExpireWithToken() throws InterruptedException {
+        UserDetails userDetails = Mockito.mock(User.class);
+        Mockito.when(userDetails.getUsername()).thenReturn("testUser");
+        jwtService = new JwtService(meterRegistry, SECRET_KEY, 1000L, 100);
+        String token = jwtService.generateToken(userDetails);
+
+        assertTrue(jwtService.isTokenValid(token, userDetails));
+
+        Thread.sleep(2200L);
+        assertThrows(ExpiredJwtException.class, () -> jwtService.isTokenValid(token, userDetails));
+    }
+
+    @Test
+    @DisplayName("Test token signed with another key is rejected and not cached")
+    void testForeignTokenIsRejected() {
+        SecretKey otherKey = Keys.hmacShaKeyFor(
+                "AnotherSecretKeyThatIsAlsoLongEnoughToBeUsedWithHmacSha256Signatures".getBytes(StandardCharsets.UTF_8));
+        String token = Jwts.builder()
+                .subject("testUser")
+                .expiration(new Date(System.currentTimeMillis() + 3600000L))
+                .signWith(otherKey)
+                .compact();
+
+        assertThrows(SignatureException.class, () -> jwtService.parseClaims(token));
+        assertEquals(0, jwtService.getVerifiedClaims().estimatedSize());
+    }
+
+    @Test
+    @DisplayName("Test signature verifications are timed and claims cache hits are counted")
+    void testParseMetrics() {
+        UserDetails userDetails = Mockito.mock(User.class);
+        Mockito.when(userDetails.getUsername()).thenReturn("testUser");
+        String token = jwtService.generateToken(userDetails);
+
+        jwtService.parseClaims(token);
+        jwtService.parseClaims(token);
+        assertThrows(Exception.class, () -> jwtService.parseClaims("not.a.token"));
+
+        assertEquals(1, meterRegistry.get("auth.jwt.parse").tag("outcome", "valid").timer().count());
+        assertEquals(1, meterRegistry.get("auth.jwt.parse").tag("outcome", "invalid").timer().count());
+        assertEquals(1, meterRegistry.get("cache.gets")
+                .tag("cache", JwtService.CLAIMS_CACHE_NAME).tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Test token issued to a stored user carries its id and yields a principal")
+    void testUserIdClaim() {
+        org.goit.urlshortener.auth.model.User user = org.goit.urlshortener.auth.model.User.builder()
+                .id(42L)
+                .email("user@example.com")
+                .password("hash")
+                .build();
+
+        Claims claims = jwtService.parseClaims(jwtService.generateToken(user));
+
+        org.goit.urlshortener.auth.model.User principal = jwtService.extractPrincipal(claims).orElseThrow();
+        assertEquals(42L, principal.getId());
+        assertEquals("user@example.com", principal.getUsername());
+        assertNull(principal.getPassword(), "Principal built from a token should not carry a password");
+    }
+
+    @Test
+    @DisplayName("Test token without a user id yields no principal")
+    void testMissingUserIdClaim() {
+        UserDetails userDetails = Mockito.mock(User.class);
+        Mockito.when(userDetails.getUsername()).thenReturn("testUser");
+
+        Claims claims = jwtService.parseClaims(jwtService.generateToken(userDetails));
+
+        assertTrue(jwtService.extractPrincipal(claims).isEmpty());
+    }
+}
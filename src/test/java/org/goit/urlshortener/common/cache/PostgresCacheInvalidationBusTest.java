@@ -0,0 +1,129 @@
+package org.goit.urlshortener.common.cache;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.goit.urlshortener.TestcontainersConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Invalidations published through {@code LISTEN/NOTIFY}: sent once after commit, dropped on rollback,
+ * and without taking a connection from the pool on the publishing thread.
+ */
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(properties = {
+        "app.cache.invalidation-bus=postgres",
+        "spring.datasource.hikari.connection-timeout=1000"})
+class PostgresCacheInvalidationBusTest {
+
+    private static final String CACHE_NAME = "busTest";
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final BlockingQueue<CacheInvalidation> received = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        assertInstanceOf(PostgresCacheInvalidationBus.class, invalidationBus);
+        invalidationBus.subscribe(invalidation -> {
+            if (CACHE_NAME.equals(invalidation.cacheName())) {
+                received.add(invalidation);
+            }
+        });
+
+        // The listener thread starts LISTEN asynchronously, so wait until a probe comes through
+        CacheInvalidation probe = new CacheInvalidation("other-node", CACHE_NAME, "probe");
+        for (int i = 0; i < 20 && !probe.equals(received.poll(500, TimeUnit.MILLISECONDS)); i++) {
+            invalidationBus.publish(probe);
+        }
+        received.clear();
+    }
+
+    @Test
+    @DisplayName("Invalidations of a transaction should be sent once, after it commits")
+    void testPublishOnCommit() throws InterruptedException {
+        CacheInvalidation invalidation = new CacheInvalidation("other-node", CACHE_NAME, "committed");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            invalidationBus.publish(invalidation);
+            invalidationBus.publish(invalidation);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidationBus.publish(invalidation);
+                }
+            });
+            try {
+                assertNull(received.poll(500, TimeUnit.MILLISECONDS), "Sent before commit");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertEquals(invalidation, received.poll(5, TimeUnit.SECONDS));
+        assertNull(received.poll(500, TimeUnit.MILLISECONDS), "Sent more than once");
+    }
+
+    @Test
+    @DisplayName("Invalidations of a rolled back transaction should not be sent")
+    void testPublishInsideRolledBackTransaction() throws InterruptedException {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            invalidationBus.publish(new CacheInvalidation("other-node", CACHE_NAME, "rolled-back"));
+            status.setRollbackOnly();
+        });
+
+        assertNull(received.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Publishing should not need a connection from the pool")
+    void testPublishWithExhaustedPool() throws Exception {
+        CacheInvalidation invalidation = new CacheInvalidation("other-node", CACHE_NAME, "exhausted");
+
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        List<Connection> held = new ArrayList<>();
+        try {
+            while (true) {
+                try {
+                    held.add(pool.getConnection());
+                } catch (SQLException e) {
+                    break;
+                }
+            }
+
+            invalidationBus.publish(invalidation);
+            assertEquals(invalidation, received.poll(5, TimeUnit.SECONDS));
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.goit.urlshortener.common.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoLevelCacheManagerTest {
+
+    private static final String CACHE_NAME = "redirectTargets";
+
+    private final SharedCacheStore sharedStore = new InMemorySharedCacheStore();
+    private final CacheInvalidationBus invalidationBus = new LocalCacheInvalidationBus();
+
+    private Cache nodeA;
+    private Cache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new TwoLevelCacheManager(new CaffeineCacheManager(), sharedStore, invalidationBus, "node-a")
+                .getCache(CACHE_NAME);
+        nodeB = new TwoLevelCacheManager(new CaffeineCacheManager(), sharedStore, invalidationBus, "node-b")
+                .getCache(CACHE_NAME);
+    }
+
+    @Test
+    @DisplayName("Value put on one node should be served from the shared tier on another node")
+    void testSharedTierIsReadThrough() {
+        nodeA.put("abc123", "https://example.com");
+
+        assertEquals("https://example.com", nodeB.get("abc123", String.class));
+        assertEquals("https://example.com", localValue(nodeB, "abc123"), "L1 of node B should be populated");
+    }
+
+    @Test
+    @DisplayName("Eviction on one node should drop the entry from every node")
+    void testEvictionIsBroadcast() {
+        nodeA.put("abc123", "https://example.com");
+        assertNotNull(nodeB.get("abc123"));
+
+        nodeA.evict("abc123");
+
+        assertNull(localValue(nodeA, "abc123"));
+        assertNull(localValue(nodeB, "abc123"));
+        assertNull(nodeB.get("abc123"));
+    }
+
+    @Test
+    @DisplayName("Clear on one node should clear the local level of every node")
+    void testClearIsBroadcast() {
+        nodeA.put("abc123", "https://example.com");
+        nodeB.put("xyz789", "https://example.org");
+
+        nodeB.clear();
+
+        assertNull(localValue(nodeA, "abc123"));
+        assertNull(nodeA.get("xyz789"));
+    }
+
+    @Test
+    @DisplayName("Resync message should clear the local level of every cache")
+    void testResyncClearsLocalLevel() {
+        nodeA.put("abc123", "https://example.com");
+
+        invalidationBus.publish(CacheInvalidation.everything());
+
+        assertNull(localValue(nodeA, "abc123"));
+    }
+
+    @Test
+    @DisplayName("Cache without a shared tier should still broadcast invalidations")
+    void testLocalOnlyCache() {
+        Cache localA = new TwoLevelCacheManager(new CaffeineCacheManager(), null, invalidationBus, "local-a")
+                .getCache(CACHE_NAME);
+        Cache localB = new TwoLevelCacheManager(new CaffeineCacheManager(), null, invalidationBus, "local-b")
+                .getCache(CACHE_NAME);
+        localA.put("abc123", "https://example.com");
+        localB.put("abc123", "https://example.com");
+
+        localA.evict("abc123");
+
+        assertNull(localB.get("abc123"));
+    }
+
+    @Test
+    @DisplayName("Invalidation payload should survive encoding, including separators in the key")
+    void testPostgresPayloadRoundTrip() {
+        CacheInvalidation invalidation = new CacheInvalidation("node-a", CACHE_NAME, "odd|key");
+
+        assertEquals(invalidation,
+                PostgresCacheInvalidationBus.decode(PostgresCacheInvalidationBus.encode(invalidation)));
+        assertEquals(new CacheInvalidation("node-a", CACHE_NAME, null),
+                PostgresCacheInvalidationBus.decode(PostgresCacheInvalidationBus.encode(
+                        new CacheInvalidation("node-a", CACHE_NAME, null))));
+    }
+
+    @Test
+    @DisplayName("Invalidations should be packed into payloads below the NOTIFY limit and unpacked in order")
+    void testPostgresPayloadBatching() {
+        List<CacheInvalidation> invalidations = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            invalidations.add(new CacheInvalidation("node-a", CACHE_NAME, "code" + i));
+        }
+        invalidations.add(new CacheInvalidation("node-a", CACHE_NAME, "line\nbreak\\"));
+        invalidations.add(new CacheInvalidation("node-a", CACHE_NAME, "code0"));
+
+        List<String> payloads = PostgresCacheInvalidationBus.encodeAll(invalidations);
+
+        assertTrue(payloads.size() > 1);
+        payloads.forEach(payload -> assertTrue(
+                payload.getBytes(StandardCharsets.UTF_8).length < PostgresCacheInvalidationBus.MAX_PAYLOAD_BYTES));
+        List<CacheInvalidation> decoded = payloads.stream()
+                .flatMap(payload -> PostgresCacheInvalidationBus.decodeAll(payload).stream())
+                .toList();
+        assertEquals(invalidations.subList(0, 1001), decoded);
+    }
+
+    @Test
+    @DisplayName("A key too large for a payload should invalidate its whole cache")
+    void testPostgresPayloadOversizedKey() {
+        CacheInvalidation invalidation = new CacheInvalidation("node-a", CACHE_NAME, "x".repeat(10_000));
+
+        List<String> payloads = PostgresCacheInvalidationBus.encodeAll(List.of(invalidation));
+
+        assertEquals(List.of(new CacheInvalidation("node-a", CACHE_NAME, null)),
+                PostgresCacheInvalidationBus.decodeAll(payloads.getFirst()));
+    }
+
+    private static Object localValue(Cache cache, String key) {
+        return ((TwoLevelCache) cache).getLocalCache().getIfPresent(key);
+    }
+}
@@ -0,0 +1,76 @@
+package org.goit.urlshortener.common.concurrent;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpscRingBufferTest {
+
+    @Test
+    @DisplayName("Capacity should be rounded up to a power of two")
+    void testCapacity() {
+        assertEquals(1, new MpscRingBuffer<>(1).capacity());
+        assertEquals(4, new MpscRingBuffer<>(3).capacity());
+        assertEquals(1024, new MpscRingBuffer<>(1000).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<>(0));
+    }
+
+    @Test
+    @DisplayName("Offer should fail once the buffer is full and succeed again after a drain")
+    void testOfferWhenFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, buffer.drain(drained::add, 2));
+        assertTrue(buffer.offer(4));
+        assertTrue(buffer.offer(5));
+        assertEquals(4, buffer.drain(drained::add, Integer.MAX_VALUE));
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), drained);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    @DisplayName("Elements from concurrent producers should each be drained exactly once")
+    void testConcurrentProducers() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 50_000;
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(1024);
+        Set<Integer> drained = new HashSet<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            int first = p * perProducer;
+            executor.submit(() -> {
+                for (int i = first; i < first + perProducer; i++) {
+                    while (!buffer.offer(i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+
+        while (!executor.isTerminated() || buffer.size() > 0) {
+            buffer.drain(value -> assertTrue(drained.add(value), "Drained twice: " + value), 256);
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        buffer.drain(drained::add, Integer.MAX_VALUE);
+
+        assertEquals(producers * perProducer, drained.size());
+    }
+}
@@ -0,0 +1,99 @@
+package org.goit.urlshortener.common.config;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.goit.urlshortener.common.config.CacheProperties.CacheSpec;
+import org.goit.urlshortener.url.model.RedirectTarget;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    @Test
+    @DisplayName("Named cache spec should override the default bounds and record stats")
+    void testNamedSpecIsApplied() {
+        CacheProperties properties = new CacheProperties();
+        properties.getDefaults().setMaximumSize(10L);
+        CacheSpec spec = new CacheSpec();
+        spec.setMaximumSize(2L);
+        properties.getSpecs().put("small", spec);
+
+        CacheManager cacheManager = CacheConfig.localCacheManager(properties, Map.of());
+        var nativeCache = nativeCache(cacheManager, "small");
+
+        assertEquals(2L, nativeCache.policy().eviction().orElseThrow().getMaximum());
+        assertTrue(nativeCache.policy().isRecordingStats());
+    }
+
+    @Test
+    @DisplayName("Caches without a spec should use the default spec")
+    void testDefaultSpecIsApplied() {
+        CacheProperties properties = new CacheProperties();
+        properties.getDefaults().setMaximumSize(10L);
+        properties.getDefaults().setExpireAfterAccess(Duration.ofMinutes(5));
+
+        CacheManager cacheManager = CacheConfig.localCacheManager(properties, Map.of());
+        var nativeCache = nativeCache(cacheManager, "anyCache");
+
+        assertEquals(10L, nativeCache.policy().eviction().orElseThrow().getMaximum());
+        assertTrue(nativeCache.policy().expireAfterAccess().isPresent());
+    }
+
+    @Test
+    @DisplayName("Maximum weight should bound the cache by the weighed size of the entries")
+    void testMaximumWeightUsesWeigher() {
+        CacheProperties properties = new CacheProperties();
+        CacheSpec spec = new CacheSpec();
+        spec.setMaximumWeight(1_000L);
+        properties.getSpecs().put(CacheConfig.REDIRECT_TARGETS, spec);
+
+        CacheManager cacheManager = CacheConfig.localCacheManager(properties, Map.of());
+        var nativeCache = nativeCache(cacheManager, CacheConfig.REDIRECT_TARGETS);
+
+        assertTrue(nativeCache.policy().eviction().orElseThrow().isWeighted());
+        int weight = new CacheEntryWeigher().weigh("abc123",
+                new RedirectTarget(1L, "https://example.com/" + "a".repeat(500), null));
+        assertTrue(weight > 500, "Weight should grow with the original URL length");
+    }
+
+    @Test
+    @DisplayName("Refresh after write should require a cache loader")
+    void testRefreshAfterWriteRequiresLoader() {
+        CacheProperties properties = new CacheProperties();
+        CacheSpec spec = new CacheSpec();
+        spec.setMaximumSize(10L);
+        spec.setRefreshAfterWrite(Duration.ofMinutes(1));
+        properties.getSpecs().put("refreshing", spec);
+
+        assertThrows(IllegalStateException.class, () -> CacheConfig.localCacheManager(properties, Map.of()));
+
+        CacheLoader<Object, Object> loader = key -> "value";
+        CacheManager cacheManager = CacheConfig.localCacheManager(properties,
+                Map.of("refreshing" + CacheConfig.CACHE_LOADER_SUFFIX, loader));
+        assertInstanceOf(LoadingCache.class, nativeCache(cacheManager, "refreshing"));
+    }
+
+    @Test
+    @DisplayName("Setting both maximum size and maximum weight should fail")
+    void testSizeAndWeightAreExclusive() {
+        CacheProperties properties = new CacheProperties();
+        CacheSpec spec = new CacheSpec();
+        spec.setMaximumSize(10L);
+        spec.setMaximumWeight(1_000L);
+        properties.getSpecs().put("invalid", spec);
+
+        assertThrows(IllegalStateException.class, () -> CacheConfig.localCacheManager(properties, Map.of()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(CacheManager cacheManager,
+                                                                                      String name) {
+        return (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cacheManager.getCache(name).getNativeCache();
+    }
+}
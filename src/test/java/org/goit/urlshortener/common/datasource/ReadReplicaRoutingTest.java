@@ -0,0 +1,164 @@
+package org.goit.urlshortener.common.datasource;
+
+import org.flywaydb.core.Flyway;
+import org.goit.urlshortener.TestcontainersConfiguration;
+import org.goit.urlshortener.auth.model.User;
+import org.goit.urlshortener.auth.repository.UserRepository;
+import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.dto.UrlCreateRequest;
+import org.goit.urlshortener.url.repository.UrlRepository;
+import org.goit.urlshortener.url.service.UrlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Routing against two independent Postgres containers. The replica is not fed by replication: a URL
+ * inserted only into the replica shows which database a transaction read from.
+ */
+@Testcontainers
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+class ReadReplicaRoutingTest {
+
+    private static final String REPLICA_ONLY_CODE = "replica1";
+    private static final String UPDATED_CODE = "lag1";
+
+    @Container
+    private static final PostgreSQLContainer<?> replica = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.datasource.read-replicas.enabled", () -> "true");
+        registry.add("app.datasource.read-replicas.targets[0].url", replica::getJdbcUrl);
+        registry.add("app.datasource.read-replicas.targets[0].username", replica::getUsername);
+        registry.add("app.datasource.read-replicas.targets[0].password", replica::getPassword);
+    }
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Outside a transaction, so it always runs on the primary
+    @Autowired
+    private JdbcTemplate primaryJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    private final JdbcTemplate replicaJdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()));
+
+    @BeforeEach
+    void setUp() {
+        replicaJdbcTemplate.update("""
+                INSERT INTO users (id, email, password, created_at)
+                VALUES (1000000, 'replica@mail.com', 'Password1', now()) ON CONFLICT DO NOTHING""");
+        replicaJdbcTemplate.update("""
+                INSERT INTO urls (id, short_code, original_url, created_at, expires_at, click_count, user_id)
+                VALUES (1000000, ?, 'https://example.com/replica', now(), now() + interval '1 day', 0, 1000000)""",
+                REPLICA_ONLY_CODE);
+        replicaLagMonitor.check();
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicaJdbcTemplate.update("DELETE FROM urls WHERE short_code IN (?, ?)", REPLICA_ONLY_CODE, UPDATED_CODE);
+        primaryJdbcTemplate.update("DELETE FROM urls WHERE short_code = ?", UPDATED_CODE);
+    }
+
+    @Test
+    @DisplayName("Read-only transactions should read from the replica, read-write ones from the primary")
+    void testReadOnlyTransactionsUseReplica() {
+        assertTrue(findInTransaction(true));
+        assertFalse(findInTransaction(false));
+    }
+
+    @Test
+    @DisplayName("Read-only transactions should fall back to the primary when no replica is healthy")
+    void testFallbackToPrimary() {
+        replicaRoutingDataSource.setHealthy("replica-0", false);
+
+        assertFalse(findInTransaction(true));
+    }
+
+    @Test
+    @DisplayName("Redirects after an update should resolve on the primary while the replica still has the old row")
+    void testRedirectAfterUpdateIgnoresLaggingReplica() {
+        User user = userRepository.save(new User("lagging-" + UUID.randomUUID() + "@mail.com", "Password1"));
+        Url url = urlService.createUrl(new UrlCreateRequest("https://example.com/old", UPDATED_CODE), user);
+        // The replica never receives the update below, like a replica that is behind
+        replicaJdbcTemplate.update("""
+                INSERT INTO urls (id, short_code, original_url, created_at, expires_at, click_count, user_id)
+                VALUES (1000001, ?, 'https://example.com/old', now(), now() + interval '1 day', 0, 1000000)""",
+                UPDATED_CODE);
+        assertEquals("https://example.com/old", urlService.getRedirectTarget(UPDATED_CODE).originalUrl());
+
+        urlService.updateUrl(url.getId(),
+                Url.builder().originalUrl("https://example.com/new").shortCode(UPDATED_CODE).build(), user);
+
+        assertEquals("https://example.com/new", urlService.getRedirectTarget(UPDATED_CODE).originalUrl());
+    }
+
+    @Test
+    @DisplayName("Redirects to a URL not yet on the replica should resolve instead of caching a miss")
+    void testRedirectToNewUrlIgnoresLaggingReplica() {
+        assertFalse(findInTransaction(true, UPDATED_CODE));
+        User user = userRepository.save(new User("lagging-" + UUID.randomUUID() + "@mail.com", "Password1"));
+        urlService.createUrl(new UrlCreateRequest("https://example.com/new", UPDATED_CODE), user);
+
+        assertEquals("https://example.com/new", urlService.getRedirectTarget(UPDATED_CODE).originalUrl());
+    }
+
+    private boolean findInTransaction(boolean readOnly) {
+        return findInTransaction(readOnly, REPLICA_ONLY_CODE);
+    }
+
+    private boolean findInTransaction(boolean readOnly, String shortCode) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return Boolean.TRUE.equals(transactionTemplate.execute(
+                status -> urlRepository.findByShortCode(shortCode).isPresent()));
+    }
+}
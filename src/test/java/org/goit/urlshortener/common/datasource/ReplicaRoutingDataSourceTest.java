@@ -0,0 +1,71 @@
+package org.goit.urlshortener.common.datasource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = dataSource();
+    private final DataSource first = dataSource();
+    private final DataSource second = dataSource();
+    private final ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary,
+            new LinkedHashMap<>(Map.of("replica-0", first, "replica-1", second)));
+
+    private static DataSource dataSource() {
+        DataSource dataSource = mock(DataSource.class);
+        try {
+            when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return dataSource;
+    }
+
+    @Test
+    @DisplayName("Reads should go to the primary until a replica is healthy")
+    void testFallsBackToPrimary() throws SQLException {
+        routingDataSource.getConnection();
+
+        verify(primary).getConnection();
+        verifyNoInteractions(first, second);
+    }
+
+    @Test
+    @DisplayName("Reads should alternate between healthy replicas")
+    void testRoundRobin() throws SQLException {
+        routingDataSource.setHealthy("replica-0", true);
+        routingDataSource.setHealthy("replica-1", true);
+
+        for (int i = 0; i < 4; i++) {
+            routingDataSource.getConnection();
+        }
+
+        verify(first, times(2)).getConnection();
+        verify(second, times(2)).getConnection();
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    @DisplayName("Unhealthy replicas should be skipped and health changes reported once")
+    void testUnhealthyReplicaIsSkipped() throws SQLException {
+        assertTrue(routingDataSource.setHealthy("replica-0", true));
+        assertTrue(routingDataSource.setHealthy("replica-1", true));
+        assertTrue(routingDataSource.setHealthy("replica-0", false));
+        assertFalse(routingDataSource.setHealthy("replica-0", false));
+
+        routingDataSource.getConnection();
+        routingDataSource.getConnection();
+
+        verify(second, times(2)).getConnection();
+        verifyNoInteractions(primary, first);
+    }
+}
@@ -1,8 +1,10 @@
 package org.goit.urlshortener.url.controller;
 
-import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.RedirectTarget;
 import org.goit.urlshortener.auth.service.CustomUserDetailsService;
 import org.goit.urlshortener.auth.service.JwtService;
+import org.goit.urlshortener.url.service.ClickEventPipeline;
+import org.goit.urlshortener.url.service.RedirectAccessLog;
 import org.goit.urlshortener.url.service.UrlService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,47 +32,55 @@ class RedirectControllerTest {
     @Autowired
     private UrlService urlService;
 
-    private Url testUrl;
+    private RedirectTarget testTarget;
 
     @BeforeEach
     void setUp() {
-        testUrl = Url.builder()
-                .id(1L)
-                .shortCode("abc123")
-                .originalUrl("https://example.com")
-                .createdAt(LocalDateTime.now())
-                .expiresAt(LocalDateTime.now().plusDays(1))
-                .clickCount(0L)
-                .build();
+        reset(urlService);
+        testTarget = new RedirectTarget(1L, "https://example.com", LocalDateTime.now().plusDays(1));
     }
 
     @Test
     @WithMockUser(username = "testUser", roles = "USER")
     void testRedirectToOriginalUrl_Success() throws Exception {
-        when(urlService.getValidUrl("abc123")).thenReturn(testUrl);
+        when(urlService.getRedirectTarget("abc123")).thenReturn(testTarget);
 
         mockMvc.perform(get("/s/abc123"))
                 .andExpect(status().isMovedPermanently())
                 .andExpect(redirectedUrl("https://example.com"));
 
-        verify(urlService).incrementClickCount(testUrl);
+        verify(urlService).incrementClickCount(1L);
+    }
+
+    @Test
+    @WithMockUser(username = "testUser", roles = "USER")
+    void testRedirectToOriginalUrl_EveryHitIsCounted() throws Exception {
+        when(urlService.getRedirectTarget("abc123")).thenReturn(testTarget);
+
+        mockMvc.perform(get("/s/abc123")).andExpect(status().isMovedPermanently());
+        mockMvc.perform(get("/s/abc123")).andExpect(status().isMovedPermanently());
+
+        verify(urlService, times(2)).getRedirectTarget("abc123");
+        verify(urlService, times(2)).incrementClickCount(1L);
     }
 
 
     @Test
     @WithMockUser(username = "testUser", roles = "USER")
     void testRedirectToOriginalUrl_InvalidCode() throws Exception {
-        when(urlService.getValidUrl("invalidCode")).thenThrow(new RuntimeException("URL not found or invalid shortCode"));
+        when(urlService.getRedirectTarget("invalidCode")).thenThrow(new RuntimeException("URL not found or invalid shortCode"));
 
         mockMvc.perform(get("/s/invalidCode"))
                 .andExpect(status().isGone())
                 .andExpect(redirectedUrl("/error"));
+
+        verify(urlService, never()).incrementClickCount(anyLong());
     }
 
     @Test
     @WithMockUser(username = "testUser", roles = "USER")
     void testRedirectToOriginalUrl_ExpiredUrl() throws Exception {
-        when(urlService.getValidUrl("expiredCode")).thenThrow(new RuntimeException("This URL has expired"));
+        when(urlService.getRedirectTarget("expiredCode")).thenThrow(new RuntimeException("This URL has expired"));
 
         mockMvc.perform(get("/s/expiredCode"))
                 .andExpect(status().isGone())
@@ -83,6 +93,16 @@ class RedirectControllerTest {
             return mock(UrlService.class);
         }
 
+        @Bean
+        public ClickEventPipeline clickEventPipeline() {
+            return mock(ClickEventPipeline.class);
+        }
+
+        @Bean
+        public RedirectAccessLog redirectAccessLog() {
+            return mock(RedirectAccessLog.class);
+        }
+
         @Bean
         public JwtService jwtService() {
             return mock(JwtService.class);
@@ -0,0 +1,90 @@
+package org.goit.urlshortener.url.controller;
+
+import jakarta.servlet.FilterChain;
+import org.goit.urlshortener.url.model.RedirectTarget;
+import org.goit.urlshortener.url.service.ClickEventPipeline;
+import org.goit.urlshortener.url.service.RedirectAccessLog;
+import org.goit.urlshortener.url.service.UrlService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RedirectFilterTest {
+
+    private final UrlService urlService = mock(UrlService.class);
+    private final RedirectAccessLog accessLog = mock(RedirectAccessLog.class);
+    private final ClickEventPipeline clickEventPipeline = mock(ClickEventPipeline.class);
+    private final RedirectFilter redirectFilter = new RedirectFilter(urlService, accessLog, clickEventPipeline);
+
+    @Test
+    @DisplayName("Short code request should be redirected without reaching the rest of the chain")
+    void testRedirect() throws Exception {
+        when(urlService.getRedirectTarget("abc123"))
+                .thenReturn(new RedirectTarget(1L, "https://example.com", LocalDateTime.now().plusDays(1)));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/s/abc123");
+        request.addHeader("Referer", "https://news.example.org/post");
+        request.addHeader("User-Agent", "Mozilla/5.0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        redirectFilter.doFilter(request, response, chain);
+
+        assertEquals(301, response.getStatus());
+        assertEquals("https://example.com", response.getHeader("Location"));
+        assertNoStore(response);
+        assertNull(chain.getRequest());
+        verify(urlService).incrementClickCount(1L);
+        verify(accessLog).record(eq("abc123"), eq(301), anyLong());
+        verify(clickEventPipeline).record(1L, "https://news.example.org/post", "Mozilla/5.0", "127.0.0.1");
+    }
+
+    @Test
+    @DisplayName("Unknown or expired short code should answer 410 without counting a click")
+    void testRedirectGone() throws Exception {
+        when(urlService.getRedirectTarget("missing")).thenThrow(new RuntimeException("URL not found"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        redirectFilter.doFilter(new MockHttpServletRequest("GET", "/s/missing"), response, new MockFilterChain());
+
+        assertEquals(410, response.getStatus());
+        assertEquals("/error", response.getHeader("Location"));
+        assertNoStore(response);
+        verify(urlService, never()).incrementClickCount(any());
+        verify(accessLog).record(eq("missing"), eq(410), anyLong());
+        verifyNoInteractions(clickEventPipeline);
+    }
+
+    @Test
+    @DisplayName("Requests other than GET/HEAD of a single short code should continue down the chain")
+    void testPassThrough() throws Exception {
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{
+                new MockHttpServletRequest("POST", "/s/abc123"),
+                new MockHttpServletRequest("GET", "/s/"),
+                new MockHttpServletRequest("GET", "/s/abc/def"),
+                new MockHttpServletRequest("GET", "/api/v1/urls")}) {
+            FilterChain chain = mock(FilterChain.class);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            redirectFilter.doFilter(request, response, chain);
+
+            verify(chain).doFilter(request, response);
+        }
+        verifyNoInteractions(urlService, accessLog, clickEventPipeline);
+    }
+
+    private static void assertNoStore(MockHttpServletResponse response) {
+        assertEquals("no-cache, no-store, max-age=0, must-revalidate", response.getHeader("Cache-Control"));
+        assertEquals("no-cache", response.getHeader("Pragma"));
+        assertEquals("0", response.getHeader("Expires"));
+    }
+}
@@ -3,13 +3,20 @@ package org.goit.urlshortener.url.controller;
 import org.goit.urlshortener.TestcontainersConfiguration;
 import org.goit.urlshortener.common.exception.ShortUrlException;
 import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.UrlSummary;
 import org.goit.urlshortener.auth.model.User;
 import org.goit.urlshortener.url.model.mapper.UrlMapper;
+import org.goit.urlshortener.url.model.dto.UrlBatchItemResponse;
+import org.goit.urlshortener.url.model.dto.UrlClickStatsResponse;
 import org.goit.urlshortener.url.model.dto.UrlCreateRequest;
 import org.goit.urlshortener.url.model.dto.UrlUpdateRequest;
 import org.goit.urlshortener.url.model.dto.UrlResponse;
 import org.goit.urlshortener.auth.repository.UserRepository;
+import org.goit.urlshortener.url.service.UrlBatchService;
+import org.goit.urlshortener.url.service.UrlCursor;
+import org.goit.urlshortener.url.service.UrlExportService;
 import org.goit.urlshortener.url.service.UrlService;
+import org.goit.urlshortener.url.service.UrlStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,23 +29,37 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
+import static org.goit.urlshortener.common.exception.ExceptionMessages.BATCH_TOO_LARGE;
 import static org.goit.urlshortener.common.exception.ExceptionMessages.INVALID_ORIGINAL_URL_DATA;
+import static org.goit.urlshortener.common.exception.ExceptionMessages.MALFORMED_BATCH_ITEM;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Import(TestcontainersConfiguration.class)
@@ -52,12 +73,24 @@ class UrlControllerTest {
     @MockBean
     private UrlService urlService;
 
+    @MockBean
+    private UrlBatchService urlBatchService;
+
+    @MockBean
+    private UrlExportService urlExportService;
+
+    @MockBean
+    private UrlStatsService urlStatsService;
+
     @MockBean
     private UrlMapper urlMapper;
 
     @Autowired
     private UserRepository userRepo;
 
+    @Autowired
+    private UrlController urlController;
+
     private User testUser;
 
     @BeforeEach
@@ -76,20 +109,20 @@ class UrlControllerTest {
         User mockUser = User.builder().id(1L).email("test@example.com").build();
 
         // Mock URLs
-        List<Url> urls = List.of(
-                Url.builder().id(1L).originalUrl("http://example.com").shortCode("url").build(),
-                Url.builder().id(1L).originalUrl("http://example.com").shortCode("url").build()
+        List<UrlSummary> urls = List.of(
+                new UrlSummary(1L, "url", "http://example.com", 0L),
+                new UrlSummary(2L, "url2", "http://example.com", 0L)
         );
-        Page<Url> urlPage = new PageImpl<>(urls);
+        Page<UrlSummary> urlPage = new PageImpl<>(urls);
 
         // Mock service and mapper
         when(urlService.listUrlsByStatus(eq(mockUser), eq("all"), any(PageRequest.class)))
                 .thenReturn(urlPage);
 
-        when(urlMapper.toUrlResponse(any(Url.class)))
+        when(urlMapper.toUrlResponse(any(UrlSummary.class)))
                 .thenAnswer(invocation -> {
-                    Url url = invocation.getArgument(0);
-                    return new UrlResponse(url.getOriginalUrl(), url.getShortCode(), url.getClickCount());
+                    UrlSummary url = invocation.getArgument(0);
+                    return new UrlResponse(url.originalUrl(), url.shortCode(), url.clickCount());
                 });
 
         // Perform request
@@ -103,6 +136,64 @@ class UrlControllerTest {
                 .andExpect(jsonPath("$.content[0].originalUrl").value("http://example.com"));
     }
 
+    @Test
+    @DisplayName("GET /api/v1/urls?after= - Should return a slice with a cursor to the next page")
+    void listUrlsAfterReturnsSlice() throws Exception {
+        List<UrlSummary> urls = List.of(
+                new UrlSummary(9L, "nine", "http://example.com", 0L),
+                new UrlSummary(7L, "seven", "http://example.org", 0L)
+        );
+        when(urlService.listUrlsByStatusAfter(any(User.class), eq("all"), eq(12L), eq(2)))
+                .thenReturn(new SliceImpl<>(urls, PageRequest.ofSize(2), true));
+        when(urlMapper.toUrlResponse(any(UrlSummary.class)))
+                .thenAnswer(invocation -> {
+                    UrlSummary url = invocation.getArgument(0);
+                    return new UrlResponse(url.originalUrl(), url.shortCode(), url.clickCount());
+                });
+
+        mockMvc.perform(get("/api/v1/urls")
+                        .param("after", UrlCursor.encode(12L))
+                        .param("size", "2")
+                        .with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[1].shortCode").value("seven"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value(UrlCursor.encode(7L)));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/urls?after=... - Should return 400 for a malformed cursor")
+    void listUrlsAfterWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/urls")
+                        .param("after", "not-a-cursor")
+                        .with(user(testUser)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/urls?after=... - Should return 400 for a page size over the limit")
+    void listUrlsAfterWithTooLargeSize() throws Exception {
+        mockMvc.perform(get("/api/v1/urls")
+                        .param("after", "")
+                        .param("size", "101")
+                        .with(user(testUser)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(urlService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/urls - Should return 400 for a page size over the limit")
+    void listUrlsWithTooLargeSize() throws Exception {
+        mockMvc.perform(get("/api/v1/urls")
+                        .param("size", "101")
+                        .with(user(testUser)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(urlService);
+    }
+
     @Test
     @DisplayName("GET /api/v1/urls/{id} - Should return a URL by ID")
     void getUrlById() throws Exception {
@@ -258,5 +349,136 @@ class UrlControllerTest {
                 .andExpect(jsonPath("$.error.errors[0].message").value("Invalid URL format"));
     }
 
+    @Test
+    @DisplayName("POST /api/v1/urls/batch - Should create URLs from a JSON array")
+    void createBatch() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(testUser, null, List.of())
+        );
+
+        List<UrlCreateRequest> requests = List.of(
+                new UrlCreateRequest("https://example.com", null),
+                new UrlCreateRequest("https://example.org", "taken"));
+        when(urlBatchService.createUrls(eq(requests), any(User.class)))
+                .thenReturn(List.of(
+                        UrlBatchItemResponse.created(0, "https://example.com", "AbCdEfG"),
+                        UrlBatchItemResponse.failed(1, "https://example.org", "Short code already exists")));
+
+        mockMvc.perform(post("/api/v1/urls/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"originalUrl\": \"https://example.com\"}, " +
+                                "{\"originalUrl\": \"https://example.org\", \"shortCode\": \"taken\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].created").value(true))
+                .andExpect(jsonPath("$[0].shortCode").value("AbCdEfG"))
+                .andExpect(jsonPath("$[1].created").value(false))
+                .andExpect(jsonPath("$[1].error").value("Short code already exists"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/urls/batch - Should read NDJSON and report malformed lines as failed items")
+    void createBatchFromNdjson() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(testUser, null, List.of())
+        );
+
+        List<UrlCreateRequest> expectedRequests = Arrays.asList(
+                new UrlCreateRequest("https://example.com", null),
+                null);
+        when(urlBatchService.createUrls(eq(expectedRequests), any(User.class)))
+                .thenReturn(List.of(
+                        UrlBatchItemResponse.created(0, "https://example.com", "AbCdEfG"),
+                        UrlBatchItemResponse.failed(1, null, INVALID_ORIGINAL_URL_DATA.getMessage())));
+
+        mockMvc.perform(post("/api/v1/urls/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"originalUrl\": \"https://example.com\"}\n\n{not json\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].shortCode").value("AbCdEfG"))
+                .andExpect(jsonPath("$[1].created").value(false))
+                .andExpect(jsonPath("$[1].error").value(MALFORMED_BATCH_ITEM.getMessage()));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/urls/batch - Should stop reading NDJSON past the maximum batch size")
+    void createBatchFromNdjsonTooLarge() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(testUser, null, List.of())
+        );
+        ReflectionTestUtils.setField(urlController, "maxBatchSize", 2);
+        try {
+            mockMvc.perform(post("/api/v1/urls/batch")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content("{\"originalUrl\": \"https://example.com\"}\n".repeat(3)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error.detail").value(BATCH_TOO_LARGE.getMessage()));
+        } finally {
+            ReflectionTestUtils.setField(urlController, "maxBatchSize", 50_000);
+        }
+        verifyNoInteractions(urlBatchService);
+    }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("GET /api/v1/urls/export - Should stream URLs as CSV")
+    void exportUrls() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write("short_code,original_url\nabc,https://example.com\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(urlExportService).exportUrls(any(User.class), eq("active"), eq(UrlExportService.Format.CSV), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/urls/export")
+                        .param("status", "active")
+                        .param("format", "csv")
+                        .with(user(testUser)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"urls.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("short_code,original_url\nabc,https://example.com\n"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/urls/export - Should return 400 for an unknown format")
+    void exportUrls_invalidFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/urls/export")
+                        .param("format", "xml")
+                        .with(user(testUser)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/urls/{id}/stats - Should return click buckets")
+    void getStats() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(urlStatsService.getClickStats(eq(1L), any(User.class), eq("hour"), eq(from), isNull()))
+                .thenReturn(new UrlClickStatsResponse(1L, "hour", from, from.plusHours(3), 7,
+                        List.of(new UrlClickStatsResponse.Bucket(from, 5),
+                                new UrlClickStatsResponse.Bucket(from.plusHours(2), 2))));
+
+        mockMvc.perform(get("/api/v1/urls/1/stats")
+                        .param("granularity", "hour")
+                        .param("from", "2025-01-01T00:00:00")
+                        .with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalClicks").value(7))
+                .andExpect(jsonPath("$.buckets.length()").value(2))
+                .andExpect(jsonPath("$.buckets[1].clicks").value(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/urls/{id}/stats - Should return 400 for an unknown granularity")
+    void getStats_invalidGranularity() throws Exception {
+        when(urlStatsService.getClickStats(eq(1L), any(User.class), eq("week"), any(), any()))
+                .thenThrow(new IllegalArgumentException("Invalid granularity: week"));
+
+        mockMvc.perform(get("/api/v1/urls/1/stats")
+                        .param("granularity", "week")
+                        .with(user(testUser)))
+                .andExpect(status().isBadRequest());
+    }
+}
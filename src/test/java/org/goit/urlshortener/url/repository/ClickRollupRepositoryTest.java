@@ -0,0 +1,90 @@
+package org.goit.urlshortener.url.repository;
+
+import org.goit.urlshortener.TestcontainersConfiguration;
+import org.goit.urlshortener.auth.model.User;
+import org.goit.urlshortener.auth.repository.UserRepository;
+import org.goit.urlshortener.url.model.ClickGranularity;
+import org.goit.urlshortener.url.model.ClickRollupKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rollup upserts against a real Postgres, including clicks flushed after their URL was deleted.
+ */
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+class ClickRollupRepositoryTest {
+
+    private static final String SHORT_CODE = "rollup-a";
+
+    @Autowired
+    private ClickRollupRepository clickRollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM url_click_rollups WHERE url_id IN (SELECT id FROM urls WHERE short_code = ?)",
+                SHORT_CODE);
+        jdbcTemplate.update("DELETE FROM urls WHERE short_code = ?", SHORT_CODE);
+    }
+
+    @Test
+    @DisplayName("Clicks should add up per bucket and be dropped once their URL is deleted")
+    void testAddClicks() {
+        Long userId = userRepository.save(new User("rollup-" + UUID.randomUUID() + "@mail.com", "Password1")).getId();
+        Long urlId = jdbcTemplate.queryForObject("""
+                INSERT INTO urls (short_code, original_url, created_at, expires_at, click_count, user_id)
+                VALUES (?, 'https://example.com/rollup', ?, ?, 0, ?) RETURNING id""",
+                Long.class, SHORT_CODE, Timestamp.valueOf(LocalDateTime.now()),
+                Timestamp.valueOf(LocalDateTime.now().plusDays(1)), userId);
+        LocalDateTime minute = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+        clickRollupRepository.addClicks(deltas(urlId, minute, 2));
+        clickRollupRepository.addClicks(deltas(urlId, minute, 3));
+        assertEquals(5, clicks(urlId, minute));
+
+        clickRollupRepository.deleteByUrlId(urlId);
+        jdbcTemplate.update("DELETE FROM urls WHERE id = ?", urlId);
+        clickRollupRepository.addClicks(deltas(urlId, minute, 1));
+
+        assertEquals(0, count(urlId));
+    }
+
+    private static Map<ClickRollupKey, Long> deltas(Long urlId, LocalDateTime minute, long clicks) {
+        Map<ClickRollupKey, Long> deltas = new TreeMap<>();
+        deltas.put(new ClickRollupKey(urlId, ClickGranularity.MINUTE, minute), clicks);
+        return deltas;
+    }
+
+    private long clicks(Long urlId, LocalDateTime minute) {
+        Long clicks = jdbcTemplate.queryForObject(
+                "SELECT clicks FROM url_click_rollups WHERE url_id = ? AND granularity = 'MINUTE' AND bucket_start = ?",
+                Long.class, urlId, Timestamp.valueOf(minute));
+        return clicks != null ? clicks : 0;
+    }
+
+    private long count(Long urlId) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM url_click_rollups WHERE url_id = ?",
+                Long.class, urlId);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,146 @@
+package org.goit.urlshortener.url.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.goit.urlshortener.TestcontainersConfiguration;
+import org.goit.urlshortener.auth.model.User;
+import org.goit.urlshortener.auth.repository.UserRepository;
+import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.dto.UrlCreateRequest;
+import org.goit.urlshortener.url.service.UrlService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Create-path throughput against a real Postgres, run with {@code ./gradlew benchmark}.
+ * <p>
+ * The per-row baseline reproduces the former {@code allocationSize = 1} behaviour with an increment-1
+ * sequence: one {@code nextval} round trip before every INSERT. Absolute numbers depend on the machine
+ * and Docker networking, so only the statement counts are asserted.
+ */
+@Tag("benchmark")
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UrlCreateBenchmarkTest {
+
+    private static final int SINGLE_CREATES = 2_000;
+    private static final int BULK_CREATES = 20_000;
+    private static final int WARMUP = 200;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS seq_benchmark_per_row START WITH 1000000000 INCREMENT BY 1");
+        user = userRepository.save(new User("benchmark-" + UUID.randomUUID() + "@mail.com", "Password1"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Single creates: per-row nextval baseline vs pooled-lo ids")
+    void benchmarkSingleCreates() {
+        for (int i = 0; i < WARMUP; i++) {
+            insertWithPerRowNextval(i);
+            urlService.createUrl(new UrlCreateRequest("https://example.com/warmup/" + i, null), user);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SINGLE_CREATES; i++) {
+            insertWithPerRowNextval(WARMUP + i);
+        }
+        double baseline = report("per-row nextval + INSERT", SINGLE_CREATES, System.nanoTime() - start);
+
+        statistics.clear();
+        start = System.nanoTime();
+        for (int i = 0; i < SINGLE_CREATES; i++) {
+            urlService.createUrl(new UrlCreateRequest("https://example.com/single/" + i, null), user);
+        }
+        double pooled = report("UrlService.createUrl, pooled-lo ids", SINGLE_CREATES, System.nanoTime() - start);
+        System.out.printf("single create speedup: %.2fx%n", pooled / baseline);
+
+        // One INSERT per create plus a nextval every 50 rows, instead of two statements per create
+        long statements = statistics.getPrepareStatementCount();
+        System.out.printf("statements for %d creates: %d%n", SINGLE_CREATES, statements);
+        assertTrue(statements < SINGLE_CREATES * 1.1, "Expected about one statement per create, got " + statements);
+    }
+
+    @Test
+    @DisplayName("Bulk creates: saveAll with JDBC batching and pooled-lo ids")
+    void benchmarkBulkCreates() {
+        List<Url> urls = new ArrayList<>(BULK_CREATES);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < BULK_CREATES; i++) {
+            urls.add(Url.builder()
+                    .originalUrl("https://example.com/bulk/" + i)
+                    .shortCode("b" + Integer.toString(i, 36) + UUID.randomUUID().toString().substring(0, 4))
+                    .createdAt(now)
+                    .expiresAt(now.plusDays(1))
+                    .user(user)
+                    .build());
+        }
+
+        statistics.clear();
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> urlRepository.saveAll(urls));
+        report("saveAll, batched inserts", BULK_CREATES, System.nanoTime() - start);
+
+        long statements = statistics.getPrepareStatementCount();
+        System.out.printf("statements for %d bulk creates: %d%n", BULK_CREATES, statements);
+        assertTrue(statements <= BULK_CREATES / Url.ID_ALLOCATION_SIZE * 2 + 10,
+                "Expected batched inserts and pooled ids, got " + statements + " statements");
+    }
+
+    private void insertWithPerRowNextval(int i) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Long id = jdbcTemplate.queryForObject("SELECT nextval('seq_benchmark_per_row')", Long.class);
+            jdbcTemplate.update("""
+                            INSERT INTO urls (id, short_code, original_url, created_at, expires_at, click_count, user_id)
+                            VALUES (?, ?, ?, ?, ?, 0, ?)""",
+                    id, "p" + Long.toString(id, 36), "https://example.com/per-row/" + i,
+                    Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(LocalDateTime.now().plusDays(1)),
+                    user.getId());
+        });
+    }
+
+    private static double report(String scenario, int operations, long elapsedNanos) {
+        double perSecond = operations / (elapsedNanos / 1_000_000_000.0);
+        System.out.printf("%-40s %8d ops in %6d ms -> %10.1f ops/s%n",
+                scenario, operations, elapsedNanos / 1_000_000, perSecond);
+        return perSecond;
+    }
+}
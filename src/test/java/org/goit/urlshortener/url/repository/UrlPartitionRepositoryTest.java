@@ -0,0 +1,155 @@
+package org.goit.urlshortener.url.repository;
+
+import org.goit.urlshortener.TestcontainersConfiguration;
+import org.goit.urlshortener.auth.model.User;
+import org.goit.urlshortener.auth.repository.UserRepository;
+import org.goit.urlshortener.url.repository.UrlPartitionRepository.Partition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Partition lifecycle against a real Postgres.
+ * <p>
+ * Every past month is covered by {@code urls_legacy} in a freshly migrated database, so the dropped
+ * partition is one far in the future, holding URLs that already expired. The drop path does not depend
+ * on the month, only the maintenance job's cutoff check does.
+ */
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+class UrlPartitionRepositoryTest {
+
+    private static final String DROPPED_CODE = "part-a";
+    private static final String RENAMED_CODE = "part-b";
+    private static final String KEPT_CODE = "part-c";
+
+    private final YearMonth month = YearMonth.now().plusYears(2);
+    private final String partitionName = "urls_p" + month.getYear() + String.format("%02d", month.getMonthValue());
+
+    @Autowired
+    private UrlPartitionRepository urlPartitionRepository;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.save(new User("partition-" + UUID.randomUUID() + "@mail.com", "Password1")).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Object[] codes = {DROPPED_CODE, RENAMED_CODE, KEPT_CODE, "part-x"};
+        jdbcTemplate.update("DELETE FROM url_click_rollups WHERE url_id IN "
+                + "(SELECT id FROM urls WHERE short_code IN (?, ?, ?, ?))", codes);
+        jdbcTemplate.update("DELETE FROM urls WHERE short_code IN (?, ?, ?, ?)", codes);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName);
+    }
+
+    @Test
+    @DisplayName("Legacy months should not get a partition of their own")
+    void testPastMonthIsCoveredByLegacy() {
+        assertNull(urlPartitionRepository.createPartition(YearMonth.now().minusMonths(1)));
+    }
+
+    @Test
+    @DisplayName("Dropping a partition should release its short codes and keep lookups consistent")
+    void testDropPartition() {
+        assertEquals(partitionName, urlPartitionRepository.createPartition(month));
+        assertEquals(partitionName, urlPartitionRepository.createPartition(month));
+
+        LocalDateTime createdAt = month.atDay(1).atStartOfDay().plusHours(1);
+        LocalDateTime expiredAt = LocalDateTime.now().minusDays(1);
+        Long droppedId = insertUrl(DROPPED_CODE, createdAt, expiredAt);
+        Long renamedId = insertUrl("part-x", createdAt, expiredAt);
+        Long keptId = insertUrl(KEPT_CODE, LocalDateTime.now(), LocalDateTime.now().plusDays(1));
+        jdbcTemplate.update("""
+                INSERT INTO url_click_rollups (url_id, granularity, bucket_start, clicks)
+                VALUES (?, 'DAY', ?, 1), (?, 'DAY', ?, 1)""",
+                droppedId, Timestamp.valueOf(createdAt), keptId, Timestamp.valueOf(createdAt));
+
+        // The update trigger moves the registry entry to the new code
+        jdbcTemplate.update("UPDATE urls SET short_code = ? WHERE id = ?", RENAMED_CODE, renamedId);
+        assertFalse(urlRepository.existsByShortCode("part-x"));
+        assertTrue(urlRepository.existsByShortCode(RENAMED_CODE));
+        assertEquals(renamedId, urlRepository.findRedirectTarget(RENAMED_CODE).orElseThrow().urlId());
+        assertEquals(droppedId, urlRepository.findRedirectTarget(DROPPED_CODE).orElseThrow().urlId());
+
+        Partition partition = urlPartitionRepository.findMonthlyPartitions().stream()
+                .filter(candidate -> candidate.name().equals(partitionName))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(month, partition.month());
+        assertFalse(partition.detachPending());
+        assertFalse(partition.detached());
+        assertFalse(urlPartitionRepository.hasLiveUrls(partition, LocalDateTime.now()));
+        assertTrue(urlPartitionRepository.hasLiveUrls(partition, expiredAt.minusDays(1)));
+
+        urlPartitionRepository.detachPartition(partition);
+
+        // Detached but not released yet: the codes stay taken, and the table is still listed
+        assertTrue(urlRepository.existsByShortCode(DROPPED_CODE));
+        assertTrue(urlRepository.findRedirectTarget(DROPPED_CODE).isEmpty());
+        Partition detached = urlPartitionRepository.findMonthlyPartitions().stream()
+                .filter(candidate -> candidate.name().equals(partitionName))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(detached.detached());
+
+        urlPartitionRepository.releaseUrls(detached);
+        urlPartitionRepository.dropPartition(detached);
+
+        assertTrue(urlPartitionRepository.findMonthlyPartitions().stream()
+                .noneMatch(candidate -> candidate.name().equals(partitionName)));
+        assertEquals(0, count("SELECT count(*) FROM pg_class WHERE relname = ?", partitionName));
+        assertFalse(urlRepository.existsByShortCode(DROPPED_CODE));
+        assertFalse(urlRepository.existsByShortCode(RENAMED_CODE));
+        assertTrue(urlRepository.findRedirectTarget(DROPPED_CODE).isEmpty());
+        assertTrue(urlRepository.findRedirectTarget(RENAMED_CODE).isEmpty());
+        assertEquals(0, count("SELECT count(*) FROM url_click_rollups WHERE url_id = ?", droppedId));
+
+        // URLs in other partitions are untouched
+        assertTrue(urlRepository.existsByShortCode(KEPT_CODE));
+        assertEquals(keptId, urlRepository.findRedirectTarget(KEPT_CODE).orElseThrow().urlId());
+        assertEquals(1, count("SELECT count(*) FROM url_click_rollups WHERE url_id = ?", keptId));
+
+        // A released code can be taken again
+        insertUrl(DROPPED_CODE, LocalDateTime.now(), LocalDateTime.now().plusDays(1));
+        assertTrue(urlRepository.existsByShortCode(DROPPED_CODE));
+    }
+
+    private Long insertUrl(String shortCode, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO urls (short_code, original_url, created_at, expires_at, click_count, user_id)
+                VALUES (?, 'https://example.com/partition', ?, ?, 0, ?) RETURNING id""",
+                Long.class, shortCode, Timestamp.valueOf(createdAt), Timestamp.valueOf(expiresAt), userId);
+    }
+
+    private long count(String sql, Object argument) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, argument);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,110 @@
+package org.goit.urlshortener.url.service;
+
+import org.goit.urlshortener.url.repository.ClickCountRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class ClickCountBufferTest {
+
+    private final ClickCountRepository clickCountRepository = mock(ClickCountRepository.class);
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+    private final ClickCountBuffer buffer = new ClickCountBuffer(clickCountRepository, taskScheduler, 1_000_000L);
+
+    @Test
+    @DisplayName("Flush should write one aggregated delta per URL")
+    @SuppressWarnings("unchecked")
+    void testFlushAggregatesClicks() {
+        buffer.record(1L);
+        buffer.record(1L);
+        buffer.record(1L);
+        buffer.record(2L);
+
+        buffer.flush();
+
+        ArgumentCaptor<Map<Long, Long>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(clickCountRepository).addClickCounts(captor.capture());
+        assertEquals(Map.of(1L, 3L, 2L, 1L), captor.getValue());
+        assertEquals(0L, buffer.getPendingClicks());
+    }
+
+    @Test
+    @DisplayName("Flush without recorded clicks should not touch the database")
+    void testFlushWithoutClicks() {
+        buffer.flush();
+
+        verifyNoInteractions(clickCountRepository);
+    }
+
+    @Test
+    @DisplayName("Failed flush should keep the clicks for the next flush")
+    @SuppressWarnings("unchecked")
+    void testFailedFlushIsRetried() {
+        buffer.record(1L);
+        buffer.record(1L);
+        doThrow(new RuntimeException("Database unavailable"))
+                .doNothing()
+                .when(clickCountRepository).addClickCounts(anyMap());
+
+        buffer.flush();
+        assertEquals(2L, buffer.getPendingClicks());
+
+        buffer.flush();
+
+        ArgumentCaptor<Map<Long, Long>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(clickCountRepository, times(2)).addClickCounts(captor.capture());
+        assertEquals(Map.of(1L, 2L), captor.getAllValues().get(1));
+        assertEquals(0L, buffer.getPendingClicks());
+    }
+
+    @Test
+    @DisplayName("Reaching the pending limit should schedule an early flush once")
+    void testEarlyFlushWhenPendingLimitReached() {
+        ClickCountBuffer smallBuffer = new ClickCountBuffer(clickCountRepository, taskScheduler, 3L);
+
+        smallBuffer.record(1L);
+        smallBuffer.record(1L);
+        verifyNoInteractions(taskScheduler);
+
+        smallBuffer.record(2L);
+        smallBuffer.record(2L);
+
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Concurrent clicks should not be lost between flushes")
+    @SuppressWarnings("unchecked")
+    void testConcurrentClicksAreNotLost() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            executor.execute(() -> buffer.record(1L));
+            if (i % 1_000 == 0) {
+                executor.execute(buffer::flush);
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        buffer.flushOnShutdown();
+
+        ArgumentCaptor<Map<Long, Long>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(clickCountRepository, atLeastOnce()).addClickCounts(captor.capture());
+        long flushed = captor.getAllValues().stream()
+                .mapToLong(deltas -> deltas.getOrDefault(1L, 0L))
+                .sum();
+        assertEquals(10_000L, flushed);
+    }
+}
@@ -0,0 +1,119 @@
+package org.goit.urlshortener.url.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.goit.urlshortener.url.model.ClickEvent;
+import org.goit.urlshortener.url.model.ClickEvent.UserAgentClass;
+import org.goit.urlshortener.url.repository.ClickEventRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ClickEventPipelineTest {
+
+    private final ClickEventRepository clickEventRepository = mock(ClickEventRepository.class);
+    private final CountryResolver countryResolver = mock(CountryResolver.class);
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ClickEventPipeline pipeline(int bufferSize, int batchSize) {
+        return new ClickEventPipeline(clickEventRepository, countryResolver, taskScheduler, meterRegistry,
+                bufferSize, batchSize);
+    }
+
+    @Test
+    @DisplayName("Flush should classify recorded clicks and write them with one COPY")
+    @SuppressWarnings("unchecked")
+    void testFlush() {
+        ClickEventPipeline pipeline = pipeline(16, 100);
+        when(countryResolver.resolve("10.0.0.1")).thenReturn("UA");
+
+        pipeline.record(1L, "https://News.Example.org/post?id=1", "Mozilla/5.0 (Windows NT 10.0)", "10.0.0.1");
+        pipeline.record(2L, null, "Googlebot/2.1", null);
+        pipeline.flush();
+
+        ArgumentCaptor<List<ClickEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(clickEventRepository).copyAll(captor.capture());
+        List<ClickEvent> events = captor.getValue();
+        assertEquals(2, events.size());
+
+        assertEquals(1L, events.get(0).urlId());
+        assertEquals("news.example.org", events.get(0).referrerHost());
+        assertEquals(UserAgentClass.BROWSER, events.get(0).userAgentClass());
+        assertEquals("UA", events.get(0).country());
+        assertNotNull(events.get(0).clickedAt());
+
+        assertNull(events.get(1).referrerHost());
+        assertEquals(UserAgentClass.BOT, events.get(1).userAgentClass());
+        assertNull(events.get(1).country());
+        assertEquals(0, pipeline.getPendingEvents());
+        assertEquals(2, meterRegistry.get("url.click_events.written").counter().count());
+    }
+
+    @Test
+    @DisplayName("Clicks beyond the buffer capacity should be dropped and counted")
+    void testDropWhenFull() {
+        ClickEventPipeline pipeline = pipeline(4, 100);
+
+        for (int i = 0; i < 10; i++) {
+            pipeline.record(1L, null, null, null);
+        }
+
+        assertEquals(4, pipeline.getPendingEvents());
+        assertEquals(6, meterRegistry.get("url.click_events.dropped").counter().count());
+    }
+
+    @Test
+    @DisplayName("Flush should write in batches and request an early flush once a batch is pending")
+    @SuppressWarnings("unchecked")
+    void testBatches() {
+        ClickEventPipeline pipeline = pipeline(16, 4);
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            batchSizes.add(invocation.<List<ClickEvent>>getArgument(0).size());
+            return null;
+        }).when(clickEventRepository).copyAll(anyList());
+
+        for (int i = 0; i < 10; i++) {
+            pipeline.record((long) i, null, null, null);
+        }
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+
+        pipeline.flush();
+
+        assertEquals(List.of(4, 4, 2), batchSizes);
+    }
+
+    @Test
+    @DisplayName("Failed batch should be dropped and counted instead of blocking the pipeline")
+    void testFailedBatch() {
+        ClickEventPipeline pipeline = pipeline(16, 100);
+        doThrow(new RuntimeException("connection lost")).when(clickEventRepository).copyAll(anyList());
+
+        pipeline.record(1L, null, null, null);
+        pipeline.flush();
+
+        assertEquals(0, pipeline.getPendingEvents());
+        assertEquals(1, meterRegistry.get("url.click_events.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("User agents and referrers should be reduced to compact values")
+    void testClassification() {
+        assertEquals(UserAgentClass.MOBILE,
+                UserAgentClass.of("Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) Mobile/15E148"));
+        assertEquals(UserAgentClass.BOT, UserAgentClass.of("curl/8.4.0"));
+        assertEquals(UserAgentClass.OTHER, UserAgentClass.of(""));
+        assertNull(ClickEventPipeline.referrerHost("not a uri"));
+        assertNull(ClickEventPipeline.referrerHost("/relative/path"));
+    }
+}
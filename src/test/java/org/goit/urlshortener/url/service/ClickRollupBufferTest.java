@@ -0,0 +1,82 @@
+package org.goit.urlshortener.url.service;
+
+import org.goit.urlshortener.url.model.ClickRollupKey;
+import org.goit.urlshortener.url.repository.ClickRollupRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+import static org.goit.urlshortener.url.model.ClickGranularity.DAY;
+import static org.goit.urlshortener.url.model.ClickGranularity.HOUR;
+import static org.goit.urlshortener.url.model.ClickGranularity.MINUTE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class ClickRollupBufferTest {
+
+    private final ClickRollupRepository clickRollupRepository = mock(ClickRollupRepository.class);
+    private final ClickRollupBuffer buffer = new ClickRollupBuffer(clickRollupRepository);
+
+    private final LocalDateTime day = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Test
+    @DisplayName("Flush should fold minute counters into minute, hour and day buckets")
+    @SuppressWarnings("unchecked")
+    void testFlushRollsUpBuckets() {
+        buffer.record(1L, millis(day.plusHours(10).plusMinutes(15).plusSeconds(5)));
+        buffer.record(1L, millis(day.plusHours(10).plusMinutes(15).plusSeconds(55)));
+        buffer.record(1L, millis(day.plusHours(10).plusMinutes(16)));
+        buffer.record(2L, millis(day.plusHours(11).plusMinutes(5)));
+
+        buffer.flush();
+
+        ArgumentCaptor<Map<ClickRollupKey, Long>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(clickRollupRepository).addClicks(captor.capture());
+        assertEquals(Map.of(
+                new ClickRollupKey(1L, MINUTE, day.plusHours(10).plusMinutes(15)), 2L,
+                new ClickRollupKey(1L, MINUTE, day.plusHours(10).plusMinutes(16)), 1L,
+                new ClickRollupKey(1L, HOUR, day.plusHours(10)), 3L,
+                new ClickRollupKey(1L, DAY, day), 3L,
+                new ClickRollupKey(2L, MINUTE, day.plusHours(11).plusMinutes(5)), 1L,
+                new ClickRollupKey(2L, HOUR, day.plusHours(11)), 1L,
+                new ClickRollupKey(2L, DAY, day), 1L), captor.getValue());
+    }
+
+    @Test
+    @DisplayName("Flush without recorded clicks should not touch the database")
+    void testFlushWithoutClicks() {
+        buffer.flush();
+
+        verifyNoInteractions(clickRollupRepository);
+    }
+
+    @Test
+    @DisplayName("Failed flush should keep the clicks for the next flush")
+    @SuppressWarnings("unchecked")
+    void testFailedFlushIsRetried() {
+        buffer.record(1L, millis(day.plusMinutes(1)));
+        doThrow(new RuntimeException("Database unavailable"))
+                .doNothing()
+                .when(clickRollupRepository).addClicks(anyMap());
+
+        buffer.flush();
+        buffer.flush();
+
+        ArgumentCaptor<Map<ClickRollupKey, Long>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(clickRollupRepository, times(2)).addClicks(captor.capture());
+        assertEquals(captor.getAllValues().get(0), captor.getAllValues().get(1));
+        assertEquals(1L, captor.getAllValues().get(1).get(new ClickRollupKey(1L, DAY, day)));
+
+        buffer.flush();
+        verifyNoMoreInteractions(clickRollupRepository);
+    }
+}
@@ -0,0 +1,44 @@
+package org.goit.urlshortener.url.service;
+
+import org.goit.urlshortener.url.repository.ClickRollupRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ClickRollupPrunerTest {
+
+    private final ClickRollupRepository clickRollupRepository = mock(ClickRollupRepository.class);
+    private final ClickRollupPruner pruner = new ClickRollupPruner(clickRollupRepository, 3_600_000L, 2, 30_000L);
+
+    @Test
+    @DisplayName("Pruner should delete minute buckets past the retention until a short batch")
+    void testPruneInBatches() {
+        when(clickRollupRepository.deleteMinutesBefore(any(LocalDateTime.class), eq(2))).thenReturn(2, 2, 1);
+
+        pruner.prune();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(clickRollupRepository, times(3)).deleteMinutesBefore(cutoff.capture(), eq(2));
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusMinutes(59)));
+        assertTrue(cutoff.getValue().isAfter(LocalDateTime.now().minusMinutes(61)));
+    }
+
+    @Test
+    @DisplayName("Failed batch should end the run without throwing")
+    void testPruneFailure() {
+        when(clickRollupRepository.deleteMinutesBefore(any(LocalDateTime.class), eq(2)))
+                .thenReturn(2)
+                .thenThrow(new RuntimeException("Database unavailable"));
+
+        assertDoesNotThrow(pruner::prune);
+
+        verify(clickRollupRepository, times(2)).deleteMinutesBefore(any(LocalDateTime.class), eq(2));
+    }
+}
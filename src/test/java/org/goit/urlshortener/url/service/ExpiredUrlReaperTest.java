@@ -0,0 +1,76 @@
+package org.goit.urlshortener.url.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.goit.urlshortener.url.repository.UrlExpiryRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExpiredUrlReaperTest {
+
+    private final UrlExpiryRepository urlExpiryRepository = mock(UrlExpiryRepository.class);
+    private final RedirectCache redirectCache = mock(RedirectCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ExpiredUrlReaper reaper(double maxRowsPerSecond) {
+        return new ExpiredUrlReaper(urlExpiryRepository, redirectCache, meterRegistry,
+                3_600_000L, 2, maxRowsPerSecond, 30_000L);
+    }
+
+    @Test
+    @DisplayName("Reaper should delete batches until a short batch and evict the deleted codes")
+    void testReapInBatches() {
+        when(urlExpiryRepository.deleteExpired(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of("aaa", "bbb"))
+                .thenReturn(List.of("ccc"));
+
+        reaper(0).reap();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(urlExpiryRepository, times(2)).deleteExpired(cutoff.capture(), eq(2));
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusMinutes(59)));
+        verify(redirectCache).evictAll(List.of("aaa", "bbb"));
+        verify(redirectCache).evictAll(List.of("ccc"));
+
+        DistributionSummary reaped = meterRegistry.get("url.expiry.reaped").summary();
+        assertEquals(1, reaped.count());
+        assertEquals(3, reaped.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Reaper should pace batches to the configured rate")
+    void testReapIsRateLimited() {
+        when(urlExpiryRepository.deleteExpired(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of("aaa", "bbb"))
+                .thenReturn(List.of("ccc", "ddd"))
+                .thenReturn(List.of());
+
+        long start = System.nanoTime();
+        reaper(20).reap();
+
+        // Two full batches of 2 rows at 20 rows per second take at least 200 ms
+        assertTrue(System.nanoTime() - start >= 190_000_000L);
+        verify(urlExpiryRepository, times(3)).deleteExpired(any(LocalDateTime.class), eq(2));
+    }
+
+    @Test
+    @DisplayName("Failed batch should end the run and still record the rows deleted before it")
+    void testReapFailure() {
+        when(urlExpiryRepository.deleteExpired(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of("aaa", "bbb"))
+                .thenThrow(new RuntimeException("Database unavailable"));
+
+        assertDoesNotThrow(() -> reaper(0).reap());
+
+        assertEquals(2, meterRegistry.get("url.expiry.reaped").summary().totalAmount());
+    }
+}
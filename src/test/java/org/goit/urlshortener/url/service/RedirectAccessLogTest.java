@@ -0,0 +1,50 @@
+package org.goit.urlshortener.url.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RedirectAccessLogTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Sampled entries should wait in the buffer until the next flush")
+    void testRecordAndFlush() {
+        RedirectAccessLog accessLog = new RedirectAccessLog(meterRegistry, 1.0, 16);
+
+        accessLog.record("abc123", 301, System.nanoTime());
+        accessLog.record("missing", 410, System.nanoTime());
+        assertEquals(2, accessLog.getPendingEntries());
+
+        accessLog.flush();
+        assertEquals(0, accessLog.getPendingEntries());
+    }
+
+    @Test
+    @DisplayName("Sample rate of zero should record nothing")
+    void testSamplingDisabled() {
+        RedirectAccessLog accessLog = new RedirectAccessLog(meterRegistry, 0.0, 16);
+
+        for (int i = 0; i < 100; i++) {
+            accessLog.record("abc123", 301, System.nanoTime());
+        }
+
+        assertEquals(0, accessLog.getPendingEntries());
+    }
+
+    @Test
+    @DisplayName("Entries should be dropped and counted when the buffer is full")
+    void testDropWhenFull() {
+        RedirectAccessLog accessLog = new RedirectAccessLog(meterRegistry, 1.0, 4);
+
+        for (int i = 0; i < 10; i++) {
+            accessLog.record("abc123", 301, System.nanoTime());
+        }
+
+        assertEquals(4, accessLog.getPendingEntries());
+        assertEquals(6, meterRegistry.get("url.access_log.dropped").counter().count());
+    }
+}
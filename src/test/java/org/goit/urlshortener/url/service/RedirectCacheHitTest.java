@@ -0,0 +1,61 @@
+package org.goit.urlshortener.url.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.goit.urlshortener.TestcontainersConfiguration;
+import org.goit.urlshortener.url.model.RedirectTarget;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Cached redirects through the transactional proxy: with every pooled connection checked out,
+ * a cache hit must still resolve instead of waiting for {@code connection-timeout}.
+ */
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(properties = "spring.datasource.hikari.connection-timeout=2000")
+class RedirectCacheHitTest {
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private RedirectCache redirectCache;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("A cache hit should not take a connection from the pool")
+    void cacheHitWithExhaustedPool() throws Exception {
+        RedirectTarget cached = new RedirectTarget(1L, "https://example.com/cached", LocalDateTime.now().plusDays(1));
+        redirectCache.put("cachehit", cached);
+
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < pool.getMaximumPoolSize(); i++) {
+                held.add(pool.getConnection());
+            }
+
+            RedirectTarget target = assertTimeoutPreemptively(Duration.ofSeconds(1),
+                    () -> urlService.getRedirectTarget("cachehit"));
+            assertEquals(cached, target);
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+}
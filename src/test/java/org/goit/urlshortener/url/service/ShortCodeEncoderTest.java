@@ -0,0 +1,70 @@
+package org.goit.urlshortener.url.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortCodeEncoderTest {
+
+    @Test
+    @DisplayName("Encoded codes should be distinct for distinct sequence values")
+    void testEncodingIsInjective() {
+        Set<String> codes = new HashSet<>();
+        for (long value = 1; value <= 200_000; value++) {
+            assertTrue(codes.add(ShortCodeEncoder.encode(value)), "Duplicate code for value " + value);
+        }
+    }
+
+    @Test
+    @DisplayName("Codes should start at seven characters: the marker, then the generator alphabet")
+    void testCodeLengthAndAlphabet() {
+        String code = ShortCodeEncoder.encode(1);
+
+        assertEquals(ShortCodeEncoder.MIN_LENGTH, code.length());
+        assertEquals(ShortCodeEncoder.MARKER, code.charAt(0));
+        assertEquals(-1, ShortCodeGenerator.CHARACTERS.indexOf(ShortCodeEncoder.MARKER));
+        code.substring(1).chars().forEach(c -> assertTrue(ShortCodeGenerator.CHARACTERS.indexOf(c) >= 0));
+    }
+
+    @Test
+    @DisplayName("Consecutive values should not produce consecutive codes")
+    void testCodesAreNotSequential() {
+        String first = ShortCodeEncoder.encode(1);
+        String second = ShortCodeEncoder.encode(2);
+
+        assertNotEquals(first.substring(1, 6), second.substring(1, 6));
+    }
+
+    @Test
+    @DisplayName("Values past the seven character keyspace should grow the code length")
+    void testKeyspaceGrowth() {
+        long sevenCharKeyspace = ShortCodeEncoder.keyspace(7);
+
+        assertEquals(7, ShortCodeEncoder.encode(sevenCharKeyspace - 1).length());
+        assertEquals(8, ShortCodeEncoder.encode(sevenCharKeyspace).length());
+        assertNotEquals(ShortCodeEncoder.encode(0), ShortCodeEncoder.encode(sevenCharKeyspace));
+    }
+
+    @Test
+    @DisplayName("Every encoded code should be in the namespace reserved from custom codes")
+    void testEncodedCodesAreReserved() {
+        assertTrue(ShortCodeEncoder.isReserved(ShortCodeEncoder.encode(1)));
+        assertTrue(ShortCodeEncoder.isReserved(ShortCodeEncoder.encode(ShortCodeEncoder.keyspace(7))));
+
+        assertFalse(ShortCodeEncoder.isReserved("abc123"));
+        assertFalse(ShortCodeEncoder.isReserved("mybrand1"));
+        assertFalse(ShortCodeEncoder.isReserved("summer2024"));
+        assertFalse(ShortCodeEncoder.isReserved("my_link"));
+        assertFalse(ShortCodeEncoder.isReserved(""));
+    }
+
+    @Test
+    @DisplayName("Negative values should be rejected")
+    void testNegativeValue() {
+        assertThrows(IllegalArgumentException.class, () -> ShortCodeEncoder.encode(-1));
+    }
+}
@@ -1,5 +1,7 @@
 package org.goit.urlshortener.url.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.goit.urlshortener.common.exception.ShortUrlException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,7 +14,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class ShortCodeGeneratorTest {
 
-    private final ShortCodeGenerator generator = new ShortCodeGenerator();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ShortCodeGenerator generator = new ShortCodeGenerator(meterRegistry, 6, 10, 0.1);
 
     @Test
     @DisplayName("Generated short code should have a length of 6")
@@ -52,4 +55,46 @@ class ShortCodeGeneratorTest {
         }
         assertEquals(100_000, codes.size());
     }
+
+    @Test
+    @DisplayName("Repeated collisions within one generation should grow the code length")
+    void testGrowsLengthOnRepeatedCollisions() {
+        String shortCode = generator.generateUniqueShortCode(code -> code.length() < 8);
+
+        assertEquals(8, shortCode.length());
+        assertEquals(8, generator.getActiveLength());
+        assertEquals(8, generator.generateUniqueShortCode(code -> false).length());
+    }
+
+    @Test
+    @DisplayName("High first-attempt collision rate should grow the code length")
+    void testGrowsLengthOnCollisionRate() {
+        int[] calls = {0};
+        for (int i = 0; i < 1000; i++) {
+            // Every tenth existence check collides, so roughly one generation in nine retries once
+            generator.generateUniqueShortCode(code -> calls[0]++ % 10 == 0);
+        }
+
+        assertEquals(7, generator.getActiveLength());
+    }
+
+    @Test
+    @DisplayName("Code length should not grow past the configured maximum")
+    void testLengthIsCapped() {
+        assertThrows(ShortUrlException.class, () -> generator.generateUniqueShortCode(code -> true));
+
+        assertEquals(10, generator.getActiveLength());
+    }
+
+    @Test
+    @DisplayName("Active length and collisions should be exposed as metrics")
+    void testMetrics() {
+        int[] calls = {0};
+        generator.generateUniqueShortCode(code -> calls[0]++ < 2);
+
+        assertEquals(6.0, meterRegistry.get("url.short_code.length").gauge().value());
+        DistributionSummary collisions = meterRegistry.get("url.short_code.collisions").summary();
+        assertEquals(1, collisions.count());
+        assertEquals(2.0, collisions.totalAmount());
+    }
 }
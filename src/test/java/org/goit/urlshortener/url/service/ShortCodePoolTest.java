@@ -0,0 +1,100 @@
+package org.goit.urlshortener.url.service;
+
+import org.goit.urlshortener.url.repository.ShortCodeSequenceRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ShortCodePoolTest {
+
+    private final ShortCodeSequenceRepository sequenceRepository = mock(ShortCodeSequenceRepository.class);
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ShortCodePool pool(int blockSize, int refillThreshold) {
+        when(sequenceRepository.reserve(anyInt())).thenAnswer(invocation -> {
+            int count = invocation.getArgument(0);
+            long start = sequence.getAndAdd(count) + 1;
+            return LongStream.range(start, start + count).boxed().toList();
+        });
+        return new ShortCodePool(sequenceRepository, taskScheduler, blockSize, refillThreshold);
+    }
+
+    @Test
+    @DisplayName("Empty pool should reserve one block and serve codes from it")
+    void testReservesBlockWhenEmpty() {
+        ShortCodePool pool = pool(10, 0);
+
+        String first = pool.nextCode();
+        String second = pool.nextCode();
+
+        assertNotEquals(first, second);
+        assertEquals(8, pool.getAvailable());
+        verify(sequenceRepository, times(1)).reserve(10);
+    }
+
+    @Test
+    @DisplayName("Running low should schedule a background refill once")
+    void testSchedulesRefillWhenLow() {
+        ShortCodePool pool = pool(10, 5);
+
+        for (int i = 0; i < 7; i++) {
+            pool.nextCode();
+        }
+
+        ArgumentCaptor<Runnable> refill = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(1)).schedule(refill.capture(), any(Instant.class));
+
+        refill.getValue().run();
+        assertEquals(13, pool.getAvailable());
+        verify(sequenceRepository, times(2)).reserve(10);
+    }
+
+    @Test
+    @DisplayName("Concurrent callers should never receive the same code")
+    void testConcurrentCodesAreUnique() throws InterruptedException {
+        ShortCodePool pool = pool(100, 0);
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            executor.execute(() -> assertTrue(codes.add(pool.nextCode())));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(10_000, codes.size());
+    }
+
+    @Test
+    @DisplayName("Failed background refill should allow the next refill to be scheduled")
+    void testFailedRefillIsRescheduled() {
+        ShortCodePool pool = pool(10, 5);
+        for (int i = 0; i < 6; i++) {
+            pool.nextCode();
+        }
+        ArgumentCaptor<Runnable> refill = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(refill.capture(), any(Instant.class));
+
+        when(sequenceRepository.reserve(anyInt())).thenThrow(new RuntimeException("Database unavailable"));
+        refill.getValue().run();
+        pool.nextCode();
+
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+}
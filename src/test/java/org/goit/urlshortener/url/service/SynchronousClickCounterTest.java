@@ -0,0 +1,89 @@
+package org.goit.urlshortener.url.service;
+
+import org.goit.urlshortener.TestcontainersConfiguration;
+import org.goit.urlshortener.auth.model.User;
+import org.goit.urlshortener.auth.repository.UserRepository;
+import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.dto.UrlCreateRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Concurrent redirects of one URL in {@code sync} mode: every click must reach {@code click_count}.
+ */
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "url.clicks.mode=sync")
+class SynchronousClickCounterTest {
+
+    private static final int REDIRECTS = 1000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ClickCounter clickCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+    @Test
+    @DisplayName("Parallel redirects should not lose click increments")
+    void parallelRedirectsCountEveryClick() throws Exception {
+        assertInstanceOf(SynchronousClickCounter.class, clickCounter);
+
+        User user = userRepository.save(new User("clicks-" + UUID.randomUUID() + "@mail.com", "Password1"));
+        Url url = urlService.createUrl(new UrlCreateRequest("https://example.com/clicks", null), user);
+        HttpRequest redirect = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/s/" + url.getShortCode()))
+                .GET()
+                .build();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < REDIRECTS; i++) {
+                statuses.add(clients.submit(() -> {
+                    start.await();
+                    return httpClient.send(redirect, HttpResponse.BodyHandlers.discarding()).statusCode();
+                }));
+            }
+            start.countDown();
+        }
+
+        for (Future<Integer> status : statuses) {
+            assertEquals(301, status.get().intValue());
+        }
+        Long clicks = jdbcTemplate.queryForObject("SELECT click_count FROM urls WHERE id = ?", Long.class, url.getId());
+        assertEquals(REDIRECTS, clicks.longValue());
+    }
+}
@@ -0,0 +1,175 @@
+package org.goit.urlshortener.url.service;
+
+import org.goit.urlshortener.auth.model.User;
+import org.goit.urlshortener.common.exception.ShortUrlException;
+import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.dto.UrlBatchItemResponse;
+import org.goit.urlshortener.url.model.dto.UrlCreateRequest;
+import org.goit.urlshortener.url.repository.UrlBatchRepository;
+import org.goit.urlshortener.url.repository.UrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.goit.urlshortener.common.exception.ExceptionMessages.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class UrlBatchServiceTest {
+
+    private final UrlBatchRepository urlBatchRepository = mock(UrlBatchRepository.class);
+    private final UrlRepository urlRepository = mock(UrlRepository.class);
+    private final UrlValidationService validator = mock(UrlValidationService.class);
+    private final ShortCodeGenerator generator = mock(ShortCodeGenerator.class);
+    private final ShortCodePool shortCodePool = mock(ShortCodePool.class);
+    private final RedirectCache redirectCache = mock(RedirectCache.class);
+    private final UrlBatchService urlBatchService = new UrlBatchService(urlBatchRepository, urlRepository, validator,
+            generator, shortCodePool, redirectCache);
+
+    private final User user = new User();
+
+    @BeforeEach
+    void setUp() {
+        user.setIdForTest(1L);
+        when(urlBatchRepository.nextIds(anyInt())).thenAnswer(invocation ->
+                LongStream.rangeClosed(1, invocation.<Integer>getArgument(0)).boxed().toList());
+        when(urlBatchRepository.findExistingShortCodes(anyCollection())).thenReturn(Set.of());
+        when(urlBatchRepository.tryInsertAll(anyList())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Batch should allocate generated codes in bulk and insert all rows at once")
+    @SuppressWarnings("unchecked")
+    void testCreateUrls() {
+        List<UrlCreateRequest> requests = List.of(
+                new UrlCreateRequest("https://example.com", null),
+                new UrlCreateRequest("https://example.org", "custom"),
+                new UrlCreateRequest("https://example.net", ""));
+        when(shortCodePool.nextCodes(2)).thenReturn(List.of("AAAAAAA", "BBBBBBB"));
+
+        List<UrlBatchItemResponse> results = urlBatchService.createUrls(requests, user);
+
+        assertEquals(List.of(
+                UrlBatchItemResponse.created(0, "https://example.com", "AAAAAAA"),
+                UrlBatchItemResponse.created(1, "https://example.org", "custom"),
+                UrlBatchItemResponse.created(2, "https://example.net", "BBBBBBB")), results);
+
+        ArgumentCaptor<List<Url>> captor = ArgumentCaptor.forClass(List.class);
+        verify(urlBatchRepository).tryInsertAll(captor.capture());
+        assertEquals(3, captor.getValue().size());
+        captor.getValue().forEach(url -> {
+            assertNotNull(url.getId());
+            assertEquals(user, url.getUser());
+            assertEquals(0L, url.getClickCount());
+        });
+        verify(urlBatchRepository, times(1)).nextIds(3);
+        verify(urlBatchRepository, times(1)).findExistingShortCodes(Set.of("custom"));
+        verify(redirectCache).evictAll(List.of("custom", "AAAAAAA", "BBBBBBB"));
+        verifyNoInteractions(urlRepository, generator);
+    }
+
+    @Test
+    @DisplayName("Invalid URLs and taken or repeated custom codes should fail only their own items")
+    @SuppressWarnings("unchecked")
+    void testCreateUrlsWithFailures() {
+        List<UrlCreateRequest> requests = new ArrayList<>();
+        requests.add(new UrlCreateRequest("not a url", null));
+        requests.add(new UrlCreateRequest("https://example.com", "taken"));
+        requests.add(new UrlCreateRequest("https://example.org", "mine"));
+        requests.add(new UrlCreateRequest("https://example.net", "mine"));
+        requests.add(null);
+
+        doThrow(new ShortUrlException(INVALID_ORIGINAL_URL_DATA.getMessage())).when(validator).validateUrl("not a url");
+        doThrow(new ShortUrlException(INVALID_ORIGINAL_URL_DATA.getMessage())).when(validator).validateUrl(null);
+        when(urlBatchRepository.findExistingShortCodes(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).contains("taken") ? Set.of("taken") : Set.of());
+
+        List<UrlBatchItemResponse> results = urlBatchService.createUrls(requests, user);
+
+        assertEquals(List.of(
+                UrlBatchItemResponse.failed(0, "not a url", INVALID_ORIGINAL_URL_DATA.getMessage()),
+                UrlBatchItemResponse.failed(1, "https://example.com", SHORT_CODE_ALREADY_EXISTS.getMessage()),
+                UrlBatchItemResponse.created(2, "https://example.org", "mine"),
+                UrlBatchItemResponse.failed(3, "https://example.net", SHORT_CODE_ALREADY_EXISTS.getMessage()),
+                UrlBatchItemResponse.failed(4, null, INVALID_ORIGINAL_URL_DATA.getMessage())), results);
+
+        ArgumentCaptor<List<Url>> captor = ArgumentCaptor.forClass(List.class);
+        verify(urlBatchRepository).tryInsertAll(captor.capture());
+        assertEquals(List.of("mine"), captor.getValue().stream().map(Url::getShortCode).toList());
+        verifyNoInteractions(shortCodePool);
+    }
+
+    @Test
+    @DisplayName("A custom code taken by another transaction during the batch should fail only its item")
+    @SuppressWarnings("unchecked")
+    void testCreateUrlsConcurrentConflict() {
+        List<UrlCreateRequest> requests = List.of(
+                new UrlCreateRequest("https://example.com", "racy"),
+                new UrlCreateRequest("https://example.org", "mine"));
+        when(urlBatchRepository.tryInsertAll(anyList())).thenReturn(false, true);
+        when(urlBatchRepository.findExistingShortCodes(anyCollection())).thenReturn(Set.of(), Set.of("racy"));
+
+        List<UrlBatchItemResponse> results = urlBatchService.createUrls(requests, user);
+
+        assertEquals(List.of(
+                UrlBatchItemResponse.failed(0, "https://example.com", SHORT_CODE_ALREADY_EXISTS.getMessage()),
+                UrlBatchItemResponse.created(1, "https://example.org", "mine")), results);
+        ArgumentCaptor<List<Url>> captor = ArgumentCaptor.forClass(List.class);
+        verify(urlBatchRepository, times(2)).tryInsertAll(captor.capture());
+        assertEquals(List.of("mine"), captor.getValue().stream().map(Url::getShortCode).toList());
+        verify(redirectCache).evictAll(List.of("mine"));
+    }
+
+    @Test
+    @DisplayName("Batch where every item fails should not write anything")
+    void testCreateUrlsAllFailed() {
+        doThrow(new ShortUrlException(INVALID_ORIGINAL_URL_DATA.getMessage())).when(validator).validateUrl(any());
+
+        List<UrlBatchItemResponse> results = urlBatchService.createUrls(
+                List.of(new UrlCreateRequest("bad", null)), user);
+
+        assertFalse(results.get(0).created());
+        verify(urlBatchRepository, never()).tryInsertAll(anyList());
+        verify(urlBatchRepository, never()).nextIds(anyInt());
+    }
+
+    @Test
+    @DisplayName("Random strategy should avoid codes already used within the batch")
+    void testCreateUrlsRandomStrategy() {
+        ReflectionTestUtils.setField(urlBatchService, "shortCodeStrategy", "random");
+        when(generator.generateUniqueShortCode(any())).thenReturn("random1", "random2");
+
+        List<UrlBatchItemResponse> results = urlBatchService.createUrls(List.of(
+                new UrlCreateRequest("https://example.com", null),
+                new UrlCreateRequest("https://example.org", null)), user);
+
+        assertEquals("random1", results.get(0).shortCode());
+        assertEquals("random2", results.get(1).shortCode());
+        verifyNoInteractions(shortCodePool);
+    }
+
+    @Test
+    @DisplayName("Batch larger than the configured maximum should be rejected")
+    void testCreateUrlsTooLarge() {
+        ReflectionTestUtils.setField(urlBatchService, "maxBatchSize", 1);
+
+        ShortUrlException ex = assertThrows(ShortUrlException.class, () -> urlBatchService.createUrls(List.of(
+                new UrlCreateRequest("https://example.com", null),
+                new UrlCreateRequest("https://example.org", null)), user));
+
+        assertEquals(BATCH_TOO_LARGE.getMessage(), ex.getMessage());
+        verifyNoInteractions(urlBatchRepository);
+    }
+}
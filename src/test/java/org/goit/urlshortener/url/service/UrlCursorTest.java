@@ -0,0 +1,30 @@
+package org.goit.urlshortener.url.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlCursorTest {
+
+    @Test
+    @DisplayName("Encoded cursor should decode to the same id")
+    void testRoundTrip() {
+        assertEquals(123456789L, UrlCursor.decode(UrlCursor.encode(123456789L)));
+    }
+
+    @Test
+    @DisplayName("Empty cursor should mean the first page")
+    void testEmptyCursor() {
+        assertNull(UrlCursor.decode(""));
+        assertNull(UrlCursor.decode(null));
+    }
+
+    @Test
+    @DisplayName("Malformed cursors should be rejected")
+    void testMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> UrlCursor.decode("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> UrlCursor.decode("bm90LWFuLWlk"));
+        assertThrows(IllegalArgumentException.class, () -> UrlCursor.decode(UrlCursor.encode(1L).substring(1)));
+    }
+}
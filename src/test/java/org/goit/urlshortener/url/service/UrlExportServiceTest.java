@@ -0,0 +1,95 @@
+package org.goit.urlshortener.url.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.goit.urlshortener.auth.model.User;
+import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.repository.UrlRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UrlExportServiceTest {
+
+    private final UrlRepository urlRepository = mock(UrlRepository.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final UrlExportService urlExportService = new UrlExportService(urlRepository, entityManager, objectMapper);
+
+    private final User user = new User();
+    private final LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private Url url(String shortCode, String originalUrl) {
+        return Url.builder()
+                .shortCode(shortCode)
+                .originalUrl(originalUrl)
+                .createdAt(createdAt)
+                .expiresAt(createdAt.plusDays(1))
+                .clickCount(3L)
+                .user(user)
+                .build();
+    }
+
+    @Test
+    @DisplayName("NDJSON export should write one JSON object per line and detach every row")
+    void testExportNdjson() throws IOException {
+        Url first = url("abc", "https://example.com");
+        Url second = url("def", "https://example.org");
+        when(urlRepository.streamByUser(user)).thenReturn(Stream.of(first, second));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        urlExportService.exportUrls(user, "all", UrlExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("abc", objectMapper.readTree(lines[0]).get("shortCode").asText());
+        assertEquals("2025-01-01T12:00:00", objectMapper.readTree(lines[0]).get("createdAt").asText());
+        assertEquals("https://example.org", objectMapper.readTree(lines[1]).get("originalUrl").asText());
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    @DisplayName("CSV export should write a header and quote fields containing separators")
+    void testExportCsv() throws IOException {
+        when(urlRepository.streamActiveByUser(user))
+                .thenReturn(Stream.of(url("abc", "https://example.com/?q=a,b&t=\"x\"")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        urlExportService.exportUrls(user, "active", UrlExportService.Format.CSV, out);
+
+        assertEquals("""
+                short_code,original_url,created_at,expires_at,click_count
+                abc,"https://example.com/?q=a,b&t=""x""",2025-01-01T12:00,2025-01-02T12:00,3
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Expired filter should use the expired stream")
+    void testExportExpired() throws IOException {
+        when(urlRepository.streamExpiredByUser(user)).thenReturn(Stream.empty());
+
+        urlExportService.exportUrls(user, "EXPIRED", UrlExportService.Format.NDJSON, new ByteArrayOutputStream());
+
+        verify(urlRepository).streamExpiredByUser(user);
+        verify(urlRepository, never()).streamByUser(any());
+    }
+
+    @Test
+    @DisplayName("Unknown status or format should be rejected")
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> urlExportService.validateStatus("archived"));
+        assertThrows(IllegalArgumentException.class, () -> UrlExportService.Format.from("xml"));
+    }
+}
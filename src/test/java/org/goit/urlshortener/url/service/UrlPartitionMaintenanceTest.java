@@ -0,0 +1,138 @@
+package org.goit.urlshortener.url.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.goit.urlshortener.url.repository.UrlPartitionRepository;
+import org.goit.urlshortener.url.repository.UrlPartitionRepository.Partition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UrlPartitionMaintenanceTest {
+
+    private final UrlPartitionRepository urlPartitionRepository = mock(UrlPartitionRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UrlPartitionMaintenance maintenance =
+            new UrlPartitionMaintenance(urlPartitionRepository, meterRegistry, 2, 86_400_000L, true);
+
+    private final YearMonth currentMonth = YearMonth.now();
+
+    private static Partition partition(YearMonth month, boolean detachPending) {
+        return partition(month, detachPending, false);
+    }
+
+    private static Partition partition(YearMonth month, boolean detachPending, boolean detached) {
+        return new Partition("urls_p" + month.getYear() + String.format("%02d", month.getMonthValue()), month,
+                detachPending, detached);
+    }
+
+    @Test
+    @DisplayName("Maintenance should create the current and upcoming monthly partitions")
+    void testCreatesUpcomingPartitions() {
+        maintenance.maintain();
+
+        verify(urlPartitionRepository).createPartition(currentMonth);
+        verify(urlPartitionRepository).createPartition(currentMonth.plusMonths(1));
+        verify(urlPartitionRepository).createPartition(currentMonth.plusMonths(2));
+        verify(urlPartitionRepository, times(3)).createPartition(any());
+    }
+
+    @Test
+    @DisplayName("Disabling drops should still create upcoming partitions")
+    void testDropDisabledStillCreates() {
+        UrlPartitionMaintenance createOnly =
+                new UrlPartitionMaintenance(urlPartitionRepository, meterRegistry, 2, 86_400_000L, false);
+
+        createOnly.maintain();
+
+        verify(urlPartitionRepository, times(3)).createPartition(any());
+        verify(urlPartitionRepository, never()).findMonthlyPartitions();
+        verify(urlPartitionRepository, never()).dropPartition(any());
+    }
+
+    @Test
+    @DisplayName("Maintenance should drop only old partitions without live URLs")
+    void testDropsExpiredPartitions() {
+        Partition expired = partition(currentMonth.minusMonths(3), false);
+        Partition live = partition(currentMonth.minusMonths(2), false);
+        Partition recent = partition(currentMonth, false);
+        when(urlPartitionRepository.findMonthlyPartitions()).thenReturn(List.of(expired, live, recent));
+        when(urlPartitionRepository.hasLiveUrls(eq(expired), any(LocalDateTime.class))).thenReturn(false);
+        when(urlPartitionRepository.hasLiveUrls(eq(live), any(LocalDateTime.class))).thenReturn(true);
+
+        maintenance.maintain();
+
+        InOrder inOrder = inOrder(urlPartitionRepository);
+        inOrder.verify(urlPartitionRepository).detachPartition(expired);
+        inOrder.verify(urlPartitionRepository).releaseUrls(expired);
+        inOrder.verify(urlPartitionRepository).dropPartition(expired);
+        verify(urlPartitionRepository, never()).detachPartition(live);
+        verify(urlPartitionRepository, never()).dropPartition(live);
+        verify(urlPartitionRepository, never()).hasLiveUrls(eq(recent), any());
+        verify(urlPartitionRepository, never()).dropPartition(recent);
+        assertEquals(1, meterRegistry.get("url.partitions.dropped").counter().count());
+    }
+
+    @Test
+    @DisplayName("Maintenance should finish an interrupted detach without checking the rows again")
+    void testFinishesPendingDetach() {
+        Partition pending = partition(currentMonth.minusMonths(4), true);
+        when(urlPartitionRepository.findMonthlyPartitions()).thenReturn(List.of(pending));
+
+        maintenance.maintain();
+
+        verify(urlPartitionRepository, never()).hasLiveUrls(any(), any());
+        verify(urlPartitionRepository).detachPartition(pending);
+        verify(urlPartitionRepository).dropPartition(pending);
+    }
+
+    @Test
+    @DisplayName("A failed detach should keep the partition's short codes registered")
+    void testDetachFailureKeepsCodes() {
+        Partition expired = partition(currentMonth.minusMonths(3), false);
+        when(urlPartitionRepository.findMonthlyPartitions()).thenReturn(List.of(expired));
+        doThrow(new RuntimeException("Lock timeout")).when(urlPartitionRepository).detachPartition(expired);
+
+        assertDoesNotThrow(maintenance::maintain);
+
+        verify(urlPartitionRepository, never()).releaseUrls(any());
+        verify(urlPartitionRepository, never()).dropPartition(any());
+        assertEquals(0, meterRegistry.get("url.partitions.dropped").counter().count());
+    }
+
+    @Test
+    @DisplayName("A partition detached on an earlier run should be released and dropped")
+    void testFinishesDetachedPartition() {
+        Partition detached = partition(currentMonth.minusMonths(4), false, true);
+        when(urlPartitionRepository.findMonthlyPartitions()).thenReturn(List.of(detached));
+
+        maintenance.maintain();
+
+        verify(urlPartitionRepository, never()).hasLiveUrls(any(), any());
+        verify(urlPartitionRepository, never()).detachPartition(any());
+        verify(urlPartitionRepository).releaseUrls(detached);
+        verify(urlPartitionRepository).dropPartition(detached);
+    }
+
+    @Test
+    @DisplayName("Failure on one partition should not stop the others")
+    void testDropFailureIsIsolated() {
+        Partition first = partition(currentMonth.minusMonths(5), false);
+        Partition second = partition(currentMonth.minusMonths(4), false);
+        when(urlPartitionRepository.findMonthlyPartitions()).thenReturn(List.of(first, second));
+        doThrow(new RuntimeException("Lock timeout")).when(urlPartitionRepository).dropPartition(first);
+
+        assertDoesNotThrow(maintenance::maintain);
+
+        verify(urlPartitionRepository).dropPartition(second);
+        assertEquals(1, meterRegistry.get("url.partitions.dropped").counter().count());
+    }
+}
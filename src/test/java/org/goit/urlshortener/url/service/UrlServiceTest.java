@@ -1,15 +1,23 @@
 package org.goit.urlshortener.url.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.goit.urlshortener.common.exception.ShortUrlException;
+import org.goit.urlshortener.url.model.RedirectTarget;
 import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.UrlSummary;
 import org.goit.urlshortener.auth.model.User;
 import org.goit.urlshortener.url.model.dto.UrlCreateRequest;
+import org.goit.urlshortener.url.repository.ClickRollupRepository;
 import org.goit.urlshortener.url.repository.UrlRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,7 +32,14 @@ class UrlServiceTest {
     private final UrlRepository urlRepository = mock(UrlRepository.class);
     private final UrlValidationService validator = mock(UrlValidationService.class);
     private final ShortCodeGenerator generator = mock(ShortCodeGenerator.class);
-    private final UrlService urlService = new UrlService(urlRepository, validator, generator);
+    private final ShortCodePool shortCodePool = mock(ShortCodePool.class);
+    private final ClickCounter clickCounter = mock(ClickCounter.class);
+    private final ClickRollupBuffer clickRollupBuffer = mock(ClickRollupBuffer.class);
+    private final ClickRollupRepository clickRollupRepository = mock(ClickRollupRepository.class);
+    private final RedirectCache redirectCache = mock(RedirectCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UrlService urlService = new UrlService(urlRepository, validator, generator, shortCodePool,
+            clickCounter, clickRollupBuffer, clickRollupRepository, redirectCache, new UrlMetrics(meterRegistry));
 
     @Test
     @DisplayName("Creating a valid URL should return a saved URL")
@@ -40,7 +55,7 @@ class UrlServiceTest {
         expectedUrl.setShortCode("testShortCode");
         expectedUrl.setUser(user);
 
-        when(generator.generateUniqueShortCode(any())).thenReturn("testShortCode");
+        when(shortCodePool.nextCode()).thenReturn("testShortCode");
         when(urlRepository.save(any(Url.class))).thenReturn(expectedUrl);
 
         Url url = urlService.createUrl(request, user);
@@ -49,6 +64,27 @@ class UrlServiceTest {
         assertEquals("https://example.com", url.getOriginalUrl());
         assertEquals("testShortCode", url.getShortCode());
         assertEquals(1L, url.getId());
+        verify(urlRepository, never()).existsByShortCode(any());
+        verifyNoInteractions(generator);
+        assertEquals(1, meterRegistry.get("url.create")
+                .tag("code", "generated").tag("outcome", "created").timer().count());
+    }
+
+    @Test
+    @DisplayName("Random strategy should generate the short code with an existence check")
+    void testCreateUrl_RandomStrategy() {
+        ReflectionTestUtils.setField(urlService, "shortCodeStrategy", "random");
+        User user = new User();
+        user.setIdForTest(1L);
+        UrlCreateRequest request = new UrlCreateRequest("https://example.com", null);
+
+        when(generator.generateUniqueShortCode(any())).thenReturn("random");
+        when(urlRepository.save(any(Url.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Url url = urlService.createUrl(request, user);
+
+        assertEquals("random", url.getShortCode());
+        verifyNoInteractions(shortCodePool);
     }
 
     @Test
@@ -65,22 +101,99 @@ class UrlServiceTest {
         doNothing().when(urlRepository).delete(url);
 
         assertDoesNotThrow(() -> urlService.deleteUrl(1L, user));
+        verify(clickRollupRepository).deleteByUrlId(1L);
     }
 
     @Test
-    @DisplayName("Incrementing click count should update the URL click count")
+    @DisplayName("Incrementing click count should record the click in the buffer")
     void testIncrementClickCount() {
-        Url url = new Url();
-        url.setShortCode("testShortCode");
-        url.setClickCount(0L);
+        urlService.incrementClickCount(1L);
 
-        when(urlRepository.findByShortCode("testShortCode")).thenReturn(Optional.of(url));
-        when(urlRepository.save(any())).thenReturn(url);
+        verify(clickCounter).record(1L);
+        verify(clickRollupBuffer).record(1L);
+        verifyNoInteractions(urlRepository);
+    }
+
+    @Test
+    @DisplayName("Redirect target should be loaded once and then served from the cache")
+    void testGetRedirectTarget_CacheMiss() {
+        when(urlRepository.findRedirectTarget("testShortCode")).thenReturn(
+                Optional.of(new RedirectTarget(1L, "https://example.com", LocalDateTime.now().plusDays(1))));
+
+        RedirectTarget target = urlService.getRedirectTarget("testShortCode");
+
+        assertEquals(1L, target.urlId());
+        assertEquals("https://example.com", target.originalUrl());
+        verify(redirectCache).put("testShortCode", target);
+    }
+
+    @Test
+    @DisplayName("Cached redirect target should not hit the repository")
+    void testGetRedirectTarget_CacheHit() {
+        RedirectTarget cached = new RedirectTarget(1L, "https://example.com", null);
+        when(redirectCache.get("testShortCode")).thenReturn(cached);
+
+        RedirectTarget target = urlService.getRedirectTarget("testShortCode");
+
+        assertEquals(cached, target);
+        verifyNoInteractions(urlRepository);
+    }
+
+    @Test
+    @DisplayName("Cached redirect target should still be checked for expiry")
+    void testGetRedirectTarget_CachedButExpired() {
+        RedirectTarget cached = new RedirectTarget(1L, "https://example.com", LocalDateTime.now().minusMinutes(1));
+        when(redirectCache.get("testShortCode")).thenReturn(cached);
+
+        ShortUrlException exception = assertThrows(ShortUrlException.class,
+                () -> urlService.getRedirectTarget("testShortCode"));
+
+        assertEquals(URL_EXPIRED.getMessage(), exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Unknown short code should be remembered in the negative cache")
+    void testGetRedirectTarget_NotFound() {
+        when(urlRepository.findRedirectTarget("missing")).thenReturn(Optional.empty());
 
-        urlService.incrementClickCount(url);
+        assertThrows(ShortUrlException.class, () -> urlService.getRedirectTarget("missing"));
 
-        assertEquals(1L, url.getClickCount(), "Click count should be incremented by 1");
-        verify(urlRepository).save(url);
+        verify(redirectCache).putMissing("missing");
+        verify(redirectCache, never()).put(eq("missing"), any());
+    }
+
+    @Test
+    @DisplayName("Short code in the negative cache should not hit the repository")
+    void testGetRedirectTarget_KnownMissing() {
+        when(redirectCache.isKnownMissing("missing")).thenReturn(true);
+
+        ShortUrlException exception = assertThrows(ShortUrlException.class,
+                () -> urlService.getRedirectTarget("missing"));
+
+        assertEquals(URL_NOT_FOUND.getMessage(), exception.getMessage());
+        verifyNoInteractions(urlRepository);
+    }
+
+    @Test
+    @DisplayName("Redirect lookups should be timed by outcome")
+    void testGetRedirectTarget_Metrics() {
+        when(redirectCache.get("hit")).thenReturn(new RedirectTarget(1L, "https://example.com", null));
+        when(redirectCache.get("expired"))
+                .thenReturn(new RedirectTarget(2L, "https://example.org", LocalDateTime.now().minusMinutes(1)));
+        when(urlRepository.findRedirectTarget("miss"))
+                .thenReturn(Optional.of(new RedirectTarget(3L, "https://example.net", null)));
+        when(urlRepository.findRedirectTarget("missing")).thenReturn(Optional.empty());
+
+        urlService.getRedirectTarget("hit");
+        urlService.getRedirectTarget("hit");
+        urlService.getRedirectTarget("miss");
+        assertThrows(ShortUrlException.class, () -> urlService.getRedirectTarget("expired"));
+        assertThrows(ShortUrlException.class, () -> urlService.getRedirectTarget("missing"));
+
+        assertEquals(2, meterRegistry.get("url.redirect").tag("outcome", "hit").timer().count());
+        assertEquals(1, meterRegistry.get("url.redirect").tag("outcome", "miss").timer().count());
+        assertEquals(1, meterRegistry.get("url.redirect").tag("outcome", "expired").timer().count());
+        assertEquals(1, meterRegistry.get("url.redirect").tag("outcome", "not_found").timer().count());
     }
 
     @Test
@@ -138,11 +251,11 @@ class UrlServiceTest {
         user.setIdForTest(1L);
 
         Pageable pageable = Pageable.ofSize(10);
-        Page<Url> mockPage = mock(Page.class);
+        Page<UrlSummary> mockPage = mock(Page.class);
 
         when(urlRepository.findByUser(user, pageable)).thenReturn(mockPage);
 
-        Page<Url> result = urlService.findUrlsByUser(user, pageable);
+        Page<UrlSummary> result = urlService.findUrlsByUser(user, pageable);
 
         assertNotNull(result);
         assertEquals(mockPage, result);
@@ -218,13 +331,13 @@ class UrlServiceTest {
         User user = User.builder().id(1L).email("test@example.com").build();
 
         Pageable pageable = mock(Pageable.class);
-        List<Url> urls = List.of(new Url(), new Url());
-        Page<Url> expectedPage = new PageImpl<>(urls);
+        List<UrlSummary> urls = List.of(summary(1L), summary(2L));
+        Page<UrlSummary> expectedPage = new PageImpl<>(urls);
 
         when(urlRepository.findActiveUrlsByUser(user, pageable)).thenReturn(expectedPage);
 
         // Act
-        Page<Url> result = urlService.listUrlsByStatus(user, "active", pageable);
+        Page<UrlSummary> result = urlService.listUrlsByStatus(user, "active", pageable);
 
         // Assert
         assertNotNull(result, "Result should not be null");
@@ -240,13 +353,13 @@ class UrlServiceTest {
         User user = User.builder().id(1L).email("test@example.com").build();
 
         Pageable pageable = mock(Pageable.class);
-        List<Url> urls = List.of(new Url(), new Url());
-        Page<Url> expectedPage = new PageImpl<>(urls);
+        List<UrlSummary> urls = List.of(summary(1L), summary(2L));
+        Page<UrlSummary> expectedPage = new PageImpl<>(urls);
 
         when(urlRepository.findExpiredUrlsByUser(user, pageable)).thenReturn(expectedPage);
 
         // Act
-        Page<Url> result = urlService.listUrlsByStatus(user, "expired", pageable);
+        Page<UrlSummary> result = urlService.listUrlsByStatus(user, "expired", pageable);
 
         // Assert
         assertNotNull(result, "Result should not be null");
@@ -262,13 +375,13 @@ class UrlServiceTest {
         User user = User.builder().id(1L).email("test@example.com").build();
 
         Pageable pageable = mock(Pageable.class);
-        List<Url> urls = List.of(new Url(), new Url());
-        Page<Url> expectedPage = new PageImpl<>(urls);
+        List<UrlSummary> urls = List.of(summary(1L), summary(2L));
+        Page<UrlSummary> expectedPage = new PageImpl<>(urls);
 
         when(urlRepository.findByUser(user, pageable)).thenReturn(expectedPage);
 
         // Act
-        Page<Url> result = urlService.listUrlsByStatus(user, "all", pageable);
+        Page<UrlSummary> result = urlService.listUrlsByStatus(user, "all", pageable);
 
         // Assert
         assertNotNull(result, "Result should not be null");
@@ -293,6 +406,33 @@ class UrlServiceTest {
         assertEquals("Invalid status: invalid", exception.getMessage(), "Exception message should match");
     }
 
+    @Test
+    @DisplayName("Cursor listing should seek before the cursor id with a Slice query")
+    void testListUrlsByStatusAfter() {
+        User user = User.builder().id(1L).email("test@example.com").build();
+        Slice<UrlSummary> expectedSlice = new SliceImpl<>(List.of(summary(50L), summary(45L)));
+
+        when(urlRepository.findActiveByUserBefore(user, 42L, PageRequest.ofSize(2))).thenReturn(expectedSlice);
+
+        Slice<UrlSummary> result = urlService.listUrlsByStatusAfter(user, "active", 42L, 2);
+
+        assertEquals(expectedSlice, result);
+        verify(urlRepository, times(1)).findActiveByUserBefore(user, 42L, PageRequest.ofSize(2));
+        verifyNoMoreInteractions(urlRepository);
+    }
+
+    @Test
+    @DisplayName("Cursor listing without a cursor should start from the newest URL")
+    void testListUrlsByStatusAfter_FirstPage() {
+        User user = User.builder().id(1L).email("test@example.com").build();
+        when(urlRepository.findByUserBefore(user, Long.MAX_VALUE, PageRequest.ofSize(10)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        urlService.listUrlsByStatusAfter(user, "all", null, 10);
+
+        verify(urlRepository, times(1)).findByUserBefore(user, Long.MAX_VALUE, PageRequest.ofSize(10));
+    }
+
     @Test
     @DisplayName("Should update URL when valid inputs are provided")
     void testUpdateUrl_Success() {
@@ -326,6 +466,8 @@ class UrlServiceTest {
         verify(urlRepository, times(1)).existsByShortCode("xyz789");
         verify(urlRepository, times(1)).save(existingUrl);
         verifyNoMoreInteractions(urlRepository);
+        verify(redirectCache).evict("abc123");
+        verify(redirectCache).evict("xyz789");
     }
 
     @Test
@@ -390,12 +532,16 @@ class UrlServiceTest {
         // Arrange
         User mockUser = User.builder().id(1L).email("test@example.com").build();
 
-        UrlCreateRequest request = new UrlCreateRequest("https://example.com", "customCode");
+        UrlCreateRequest request = new UrlCreateRequest("https://example.com", "custom");
 
-        when(urlRepository.existsByShortCode(eq("customCode"))).thenReturn(true);
+        when(urlRepository.existsByShortCode(eq("custom"))).thenReturn(true);
 
         // Act & Assert
         assertThrows(ShortUrlException.class, () -> urlService.createUrl(request, mockUser),
                 "Should throw ShortUrlException when shortCode already exists");
     }
+
+    private static UrlSummary summary(Long id) {
+        return new UrlSummary(id, "code" + id, "https://example.com/" + id, 0L);
+    }
 }
@@ -0,0 +1,81 @@
+package org.goit.urlshortener.url.service;
+
+import org.goit.urlshortener.auth.model.User;
+import org.goit.urlshortener.common.exception.ShortUrlException;
+import org.goit.urlshortener.url.model.Url;
+import org.goit.urlshortener.url.model.dto.UrlClickStatsResponse;
+import org.goit.urlshortener.url.model.dto.UrlClickStatsResponse.Bucket;
+import org.goit.urlshortener.url.repository.ClickRollupRepository;
+import org.goit.urlshortener.url.repository.UrlRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.goit.urlshortener.url.model.ClickGranularity.HOUR;
+import static org.goit.urlshortener.url.model.ClickGranularity.MINUTE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UrlStatsServiceTest {
+
+    private final UrlRepository urlRepository = mock(UrlRepository.class);
+    private final ClickRollupRepository clickRollupRepository = mock(ClickRollupRepository.class);
+    private final UrlStatsService urlStatsService = new UrlStatsService(urlRepository, clickRollupRepository);
+
+    private final User user = new User();
+    private final LocalDateTime from = LocalDateTime.of(2025, 1, 1, 10, 20);
+    private final LocalDateTime to = LocalDateTime.of(2025, 1, 1, 13, 0);
+
+    @Test
+    @DisplayName("Stats should round the start down to the bucket and sum the buckets")
+    void testGetClickStats() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+        when(urlRepository.findByIdAndUser(5L, user)).thenReturn(Optional.of(new Url()));
+        when(clickRollupRepository.findBuckets(5L, HOUR, start, to))
+                .thenReturn(List.of(new Bucket(start, 4), new Bucket(start.plusHours(2), 3)));
+
+        UrlClickStatsResponse response = urlStatsService.getClickStats(5L, user, "HOUR", from, to);
+
+        assertEquals("hour", response.granularity());
+        assertEquals(start, response.from());
+        assertEquals(to, response.to());
+        assertEquals(7L, response.totalClicks());
+        assertEquals(2, response.buckets().size());
+    }
+
+    @Test
+    @DisplayName("Stats without a range should use the default window of the granularity")
+    void testGetClickStatsDefaultWindow() {
+        when(urlRepository.findByIdAndUser(5L, user)).thenReturn(Optional.of(new Url()));
+
+        urlStatsService.getClickStats(5L, user, "minute", null, to);
+
+        verify(clickRollupRepository).findBuckets(5L, MINUTE, to.minusHours(1), to);
+    }
+
+    @Test
+    @DisplayName("Stats should reject unknown granularities and empty or oversized ranges")
+    void testGetClickStatsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+                () -> urlStatsService.getClickStats(5L, user, "week", from, to));
+        assertThrows(IllegalArgumentException.class,
+                () -> urlStatsService.getClickStats(5L, user, "hour", to, from));
+        assertThrows(IllegalArgumentException.class,
+                () -> urlStatsService.getClickStats(5L, user, "minute", from.minusYears(1), to));
+        verifyNoInteractions(urlRepository, clickRollupRepository);
+    }
+
+    @Test
+    @DisplayName("Stats of a URL owned by another user should not be returned")
+    void testGetClickStatsNotOwned() {
+        when(urlRepository.findByIdAndUser(any(), any())).thenReturn(Optional.empty());
+
+        assertThrows(ShortUrlException.class,
+                () -> urlStatsService.getClickStats(5L, user, "hour", from, to));
+        verifyNoInteractions(clickRollupRepository);
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import static org.goit.urlshortener.common.exception.ExceptionMessages.INVALID_ORIGINAL_URL_DATA;
+import static org.goit.urlshortener.common.exception.ExceptionMessages.INVALID_SHORT_CODE;
+import static org.goit.urlshortener.common.exception.ExceptionMessages.SHORT_CODE_TOO_LONG;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -58,4 +60,25 @@ class UrlValidationServiceTest {
         assertThrows(ShortUrlException.class, () -> validator.validateUrl("example.com"));
         assertThrows(ShortUrlException.class, () -> validator.validateUrl("https://"));
     }
+
+    @Test
+    @DisplayName("Custom short codes the sequence pool could issue should be rejected")
+    void testReservedShortCode() {
+        ShortUrlException exception = assertThrows(ShortUrlException.class,
+                () -> validator.validateShortCode("_abcdEFG"));
+        assertEquals(INVALID_SHORT_CODE.getMessage(), exception.getMessage());
+
+        assertDoesNotThrow(() -> validator.validateShortCode("abcdef"));
+        assertDoesNotThrow(() -> validator.validateShortCode("mybrand1"));
+        assertDoesNotThrow(() -> validator.validateShortCode("summer2024"));
+        assertDoesNotThrow(() -> validator.validateShortCode("my_link"));
+    }
+
+    @Test
+    @DisplayName("Custom short codes longer than the column should be rejected")
+    void testTooLongShortCode() {
+        ShortUrlException exception = assertThrows(ShortUrlException.class,
+                () -> validator.validateShortCode("much-too-long"));
+        assertEquals(SHORT_CODE_TOO_LONG.getMessage(), exception.getMessage());
+    }
 }